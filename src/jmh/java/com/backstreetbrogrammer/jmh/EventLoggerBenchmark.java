@@ -0,0 +1,62 @@
+package com.backstreetbrogrammer.jmh;
+
+import com.backstreetbrogrammer.logging.EventLogger;
+import com.backstreetbrogrammer.logging.OverflowPolicy;
+import com.backstreetbrogrammer.model.Database;
+import com.backstreetbrogrammer.model.MarketData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost to the logging thread of the {@code writeToDB} log line: {@code printf} to a (discarding) stream against an
+ * {@link EventLogger} event, whose formatting happens on the logger's thread. With {@code BLOCK} the producers are
+ * held to the consumer's pace, with {@code DROP} they are not:
+ * <pre>
+ * java -jar target/benchmarks.jar EventLoggerBenchmark -t 2 -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventLoggerBenchmark {
+
+    @Param({"BLOCK", "DROP"})
+    private OverflowPolicy policy;
+
+    private final MarketData marketData = new MarketData("Reuters", "META", 42.42D);
+    private final Database db = new Database("Oracle", "MarketData-Meta");
+    private PrintStream out;
+    private EventLogger logger;
+    private int written;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        out = new PrintStream(OutputStream.nullOutputStream());
+        logger = new EventLogger(EventLogger.DEFAULT_CAPACITY, policy, Writer.nullWriter(), "benchmark-logger");
+        written = logger.register("Written MarketData [{}] to DB [{}]");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        logger.close();
+        System.out.printf("%nwritten = %d, dropped = %d%n", logger.getWritten(), logger.getDropped());
+    }
+
+    @Benchmark
+    public void printf() {
+        out.printf("Written MarketData [%s] to DB [%s]%n", marketData, db);
+    }
+
+    @Benchmark
+    public void eventLogger() {
+        logger.event(written).arg(marketData).arg(db).commit();
+    }
+
+}
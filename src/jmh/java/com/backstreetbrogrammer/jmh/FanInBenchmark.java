@@ -0,0 +1,107 @@
+package com.backstreetbrogrammer.jmh;
+
+import com.backstreetbrogrammer.concurrent.Futures;
+import com.backstreetbrogrammer.model.MarketData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best price of {@code n} pending quotes, waited on with {@code CompletableFuture.allOf} and a loop of
+ * {@code join}s, a balanced tree of {@code thenCombine}s, or {@link Futures#allOf(List, java.util.function.Function)}.
+ * Every operation creates the {@code n} input futures, builds the combinator, then completes the inputs. Run with the
+ * GC profiler to see the allocation rate per operation:
+ * <pre>
+ * java -jar target/benchmarks.jar FanInBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FanInBenchmark {
+
+    @Param({"2", "10", "100", "1000"})
+    private int n;
+
+    private MarketData[] quotes;
+    private List<CompletableFuture<MarketData>> inputs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        quotes = new MarketData[n];
+        for (int i = 0; i < n; i++) {
+            quotes[i] = new MarketData("Venue-" + i, "META", 40D + (i * 7919 % n));
+        }
+        inputs = new ArrayList<>(n);
+    }
+
+    @Benchmark
+    public MarketData allOfJoin() {
+        newInputs();
+        final CompletableFuture<MarketData> best =
+                CompletableFuture.allOf(inputs.toArray(new CompletableFuture<?>[0]))
+                                 .thenApply(ignored -> {
+                                     MarketData min = inputs.get(0).join();
+                                     for (int i = 1; i < inputs.size(); i++) {
+                                         min = lower(min, inputs.get(i).join());
+                                     }
+                                     return min;
+                                 });
+        return completeInputs(best);
+    }
+
+    @Benchmark
+    public MarketData thenCombineTree() {
+        newInputs();
+        return completeInputs(combine(0, n));
+    }
+
+    @Benchmark
+    public MarketData fanIn() {
+        newInputs();
+        final CompletableFuture<MarketData> best = Futures.allOf(inputs, values -> {
+            MarketData min = values.get(0);
+            for (int i = 1; i < values.size(); i++) {
+                min = lower(min, values.get(i));
+            }
+            return min;
+        });
+        return completeInputs(best);
+    }
+
+    private CompletableFuture<MarketData> combine(final int from, final int to) {
+        if (to - from == 1) {
+            return inputs.get(from);
+        }
+        final int mid = (from + to) >>> 1;
+        return combine(from, mid).thenCombine(combine(mid, to), FanInBenchmark::lower);
+    }
+
+    /**
+     * The reduction step shared by every variant, so that only the combinators differ.
+     */
+    private static MarketData lower(final MarketData left, final MarketData right) {
+        return right.getPrice() < left.getPrice() ? right : left;
+    }
+
+    private void newInputs() {
+        inputs.clear();
+        for (int i = 0; i < n; i++) {
+            inputs.add(new CompletableFuture<>());
+        }
+    }
+
+    private MarketData completeInputs(final CompletableFuture<MarketData> best) {
+        for (int i = 0; i < n; i++) {
+            inputs.get(i).complete(quotes[i]);
+        }
+        return best.join();
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.backstreetbrogrammer.jmh;
+
+import com.backstreetbrogrammer.ch01_intro.FetchMarketDataAsynchronouslyExecutorService;
+import com.backstreetbrogrammer.ch01_intro.FetchMarketDataSynchronously;
+import com.backstreetbrogrammer.marketdata.BestPriceConsolidator;
+import com.backstreetbrogrammer.marketdata.NonBlockingMarketDataSource;
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
+import com.backstreetbrogrammer.model.MarketData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the synchronous, ExecutorService and CompletableFuture best price strategies from chapter 01, and the
+ * timer driven non-blocking venues.
+ * <p>
+ * Caller concurrency is varied by {@link #main(String[])} (or {@code -t} on the command line):
+ * <pre>
+ * mvn clean package
+ * java -jar target/benchmarks.jar FetchStrategyBenchmark -t 4 -p sources=3,8 -p latencyMillis=1,10
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FetchStrategyBenchmark {
+
+    private static final String SYMBOL = "META";
+
+    @Param({"3", "8", "32"})
+    private int sources;
+
+    @Param({"1", "10", "50"})
+    private long latencyMillis;
+
+    private List<SimulatedMarketDataSource> venues;
+    private ExecutorService fixedPool;
+    private BestPriceConsolidator commonPoolConsolidator;
+    private BestPriceConsolidator nonBlockingConsolidator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        venues = new ArrayList<>(sources);
+        for (int i = 0; i < sources; i++) {
+            venues.add(new SimulatedMarketDataSource("Venue-" + i, 40D, 80D,
+                                                     latencyMillis, latencyMillis + latencyMillis / 4L + 1L));
+        }
+        // same pool size as FetchMarketDataAsynchronouslyExecutorService.run()
+        fixedPool = Executors.newFixedThreadPool(4);
+        commonPoolConsolidator = new BestPriceConsolidator(ForkJoinPool.commonPool());
+        venues.forEach(commonPoolConsolidator::register);
+        nonBlockingConsolidator = new BestPriceConsolidator(ForkJoinPool.commonPool());
+        venues.forEach(venue -> nonBlockingConsolidator.register(NonBlockingMarketDataSource.of(venue)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        fixedPool.shutdownNow();
+        fixedPool.awaitTermination(5L, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public MarketData synchronous() {
+        return FetchMarketDataSynchronously.bestPrice(venues, SYMBOL);
+    }
+
+    @Benchmark
+    public MarketData executorService() throws ExecutionException, InterruptedException {
+        return FetchMarketDataAsynchronouslyExecutorService.bestPrice(fixedPool, venues, SYMBOL);
+    }
+
+    @Benchmark
+    public MarketData completableFuture() {
+        return commonPoolConsolidator.bestPrice(SYMBOL).join();
+    }
+
+    @Benchmark
+    public MarketData nonBlocking() {
+        return nonBlockingConsolidator.bestPrice(SYMBOL).join();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        for (final int threads : new int[]{1, 4, 16}) {
+            final Options options = new OptionsBuilder()
+                    .include(FetchStrategyBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+}
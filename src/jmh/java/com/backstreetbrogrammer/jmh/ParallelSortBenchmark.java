@@ -0,0 +1,61 @@
+package com.backstreetbrogrammer.jmh;
+
+import com.backstreetbrogrammer.concurrent.ParallelMergeSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ParallelMergeSort} against {@link Arrays#parallelSort(int[])} and the sequential {@link Arrays#sort(int[])}
+ * on random ints. The largest size needs a heap of about 2 GB for the source, the working copy and the merge buffer:
+ * <pre>
+ * java -Xmx3g -jar target/benchmarks.jar ParallelSortBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelSortBenchmark {
+
+    @Param({"1000000", "10000000", "100000000"})
+    private int size;
+
+    private int[] source;
+    private int[] array;
+    private ParallelMergeSort sorter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = new Random(42L).ints(size).toArray();
+        array = new int[size];
+        sorter = new ParallelMergeSort();
+    }
+
+    @Setup(Level.Invocation)
+    public void shuffle() {
+        System.arraycopy(source, 0, array, 0, size);
+    }
+
+    @Benchmark
+    public int[] parallelMergeSort() {
+        return sorter.sort(array).join();
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        Arrays.parallelSort(array);
+        return array;
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        Arrays.sort(array);
+        return array;
+    }
+
+}
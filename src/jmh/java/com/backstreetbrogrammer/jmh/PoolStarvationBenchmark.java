@@ -0,0 +1,104 @@
+package com.backstreetbrogrammer.jmh;
+
+import com.backstreetbrogrammer.concurrent.ManagedBlocking;
+import com.backstreetbrogrammer.executor.ForkJoinPoolMonitor;
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Latency of a small parallel stream run in a fork join pool which also runs {@code blockedFetches} concurrent
+ * blocking venue fetches (10 ms each), as the common pool does when venue lambdas use it.
+ * <p>
+ * With {@code unmanaged} fetches every worker sleeps and the stream waits behind the queued fetches; with
+ * {@code managed} fetches ({@link ManagedBlocking}) the pool starts spare workers and the stream runs at once. The
+ * pool's {@link ForkJoinPoolMonitor} stalls are printed at the end of each trial:
+ * <pre>
+ * java -jar target/benchmarks.jar PoolStarvationBenchmark -p blockedFetches=4,32
+ * </pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PoolStarvationBenchmark {
+
+    private static final int PARALLELISM = 4;
+
+    @Param({"unmanaged", "managed"})
+    private String blocking;
+
+    @Param({"0", "4", "32"})
+    private int blockedFetches;
+
+    private ForkJoinPool pool;
+    private ScheduledExecutorService scheduler;
+    private ForkJoinPoolMonitor monitor;
+    private Thread driver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(PARALLELISM);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        monitor = new ForkJoinPoolMonitor("benchmark", pool, Duration.ofMillis(5L), Duration.ofMillis(20L),
+                                          scheduler, saturation -> { });
+
+        final SimulatedMarketDataSource venue = new SimulatedMarketDataSource("Venue", 40D, 80D, 10L, 11L);
+        final boolean managed = "managed".equals(blocking);
+        final Semaphore inFlight = new Semaphore(blockedFetches);
+        // keeps blockedFetches fetches submitted to the pool at all times
+        driver = new Thread(() -> {
+            try {
+                while (blockedFetches > 0 && !Thread.currentThread().isInterrupted()) {
+                    inFlight.acquire();
+                    pool.execute(() -> {
+                        try {
+                            if (managed) {
+                                ManagedBlocking.call(() -> venue.get("META"));
+                            } else {
+                                venue.get("META");
+                            }
+                        } catch (final InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (final Exception e) {
+                            // a failed fetch held its worker as long as a successful one: nothing to do
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "fetch-driver");
+        driver.setDaemon(true);
+        driver.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        System.out.printf("%nstalls = %d, longest = %d ms, pool size = %d%n", monitor.getStalls(),
+                          TimeUnit.NANOSECONDS.toMillis(monitor.getLongestStallNanos()), pool.getPoolSize());
+        driver.interrupt();
+        driver.join();
+        monitor.close();
+        scheduler.shutdownNow();
+        pool.shutdownNow();
+        pool.awaitTermination(5L, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public long parallelStream() {
+        return pool.submit(() -> LongStream.range(0L, 10_000L).parallel().map(i -> i * i).sum()).join();
+    }
+
+}
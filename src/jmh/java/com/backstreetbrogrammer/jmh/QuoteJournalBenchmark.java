@@ -0,0 +1,94 @@
+package com.backstreetbrogrammer.jmh;
+
+import com.backstreetbrogrammer.journal.FsyncPolicy;
+import com.backstreetbrogrammer.journal.QuoteJournal;
+import com.backstreetbrogrammer.model.MarketData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append and replay throughput of {@link QuoteJournal}, in records per microsecond, for single appends, batches
+ * of 100 and a replay of the first million records, under each fsync policy (the {@code SYNC} numbers are those
+ * of the disk's flush latency):
+ * <pre>
+ * java -jar target/benchmarks.jar QuoteJournalBenchmark -p policy=NONE,ASYNC
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuoteJournalBenchmark {
+
+    private static final int BATCH = 100;
+    private static final int REPLAY = 1_000_000;
+
+    @Param({"NONE", "ASYNC", "SYNC"})
+    private FsyncPolicy policy;
+
+    private Path directory;
+    private ScheduledExecutorService scheduler;
+    private QuoteJournal journal;
+    private List<MarketData> batch;
+    private long timestamp;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("quote-journal-benchmark");
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        journal = QuoteJournal.open(directory, QuoteJournal.DEFAULT_RECORDS_PER_SEGMENT, policy,
+                                    QuoteJournal.DEFAULT_FSYNC_INTERVAL, scheduler);
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new MarketData("Reuters", "META", 40D + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            journal.append(batch); // something to replay
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        scheduler.shutdownNow();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long append() {
+        return journal.append("Reuters", "META", 42D, timestamp++);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long appendBatch() {
+        return journal.append(batch);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REPLAY)
+    public double replay() {
+        final double[] sum = new double[1];
+        journal.replay(1L, record -> {
+            sum[0] += record.getPrice();
+            return record.getSequence() < REPLAY;
+        });
+        return sum[0];
+    }
+
+}
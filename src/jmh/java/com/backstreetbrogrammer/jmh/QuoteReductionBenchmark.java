@@ -0,0 +1,95 @@
+package com.backstreetbrogrammer.jmh;
+
+import com.backstreetbrogrammer.marketdata.BestQuote;
+import com.backstreetbrogrammer.marketdata.QuotePool;
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
+import com.backstreetbrogrammer.model.Interner;
+import com.backstreetbrogrammer.model.MarketData;
+import com.backstreetbrogrammer.model.Quote;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-price reduction over {@code venues} quotes: a {@link MarketData} per quote reduced with
+ * {@code Comparator.comparing} (boxing) or {@code comparingDouble}, against {@link Quote}s reduced by
+ * {@link BestQuote}, either one reused flyweight or quotes borrowed from a {@link QuotePool}. Run with the GC profiler to see the allocation rate per operation:
+ * <pre>
+ * java -jar target/benchmarks.jar QuoteReductionBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QuoteReductionBenchmark {
+
+    @Param({"3", "100"})
+    private int venues;
+
+    private List<SimulatedMarketDataSource> sources;
+    private int symbolId;
+    private QuotePool pool;
+    private BestQuote best;
+    private Quote scratch;
+    private Quote result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sources = new ArrayList<>(venues);
+        for (int i = 0; i < venues; i++) {
+            sources.add(new SimulatedMarketDataSource("Venue-" + i, 40D, 80D, 80L, 120L));
+        }
+        symbolId = Interner.symbols().intern("META");
+        pool = new QuotePool(16);
+        best = new BestQuote();
+        scratch = new Quote();
+        result = new Quote();
+    }
+
+    @Benchmark
+    public MarketData boxedComparator() {
+        return sources.stream()
+                      .map(source -> source.quote("META"))
+                      .min(Comparator.comparing(MarketData::getPrice))
+                      .orElseThrow();
+    }
+
+    @Benchmark
+    public MarketData primitiveComparator() {
+        return sources.stream()
+                      .map(source -> source.quote("META"))
+                      .min(Comparator.comparingDouble(MarketData::getPrice))
+                      .orElseThrow();
+    }
+
+    @Benchmark
+    public Quote flyweight() {
+        best.reset();
+        final long now = System.nanoTime();
+        for (int i = 0; i < sources.size(); i++) {
+            best.offer(sources.get(i).quote(symbolId, now, scratch));
+        }
+        best.copyTo(result);
+        return result;
+    }
+
+    @Benchmark
+    public Quote pooledQuotes() {
+        best.reset();
+        final long now = System.nanoTime();
+        for (int i = 0; i < sources.size(); i++) {
+            final Quote quote = sources.get(i).quote(symbolId, now, pool.acquire());
+            best.offer(quote);
+            pool.release(quote);
+        }
+        best.copyTo(result);
+        return result;
+    }
+
+}
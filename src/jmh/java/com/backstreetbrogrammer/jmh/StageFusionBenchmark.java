@@ -0,0 +1,83 @@
+package com.backstreetbrogrammer.jmh;
+
+import com.backstreetbrogrammer.concurrent.FusedChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A chain of {@code stages} cheap stages around one blocking stage: the naive chain runs every stage with
+ * {@code thenApplyAsync} on the pool, the fused chain hops once, in front of the blocking stage.
+ * <pre>
+ * java -jar target/benchmarks.jar StageFusionBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StageFusionBenchmark {
+
+    @Param({"2", "8", "32"})
+    private int stages;
+
+    @Param({"100"})
+    private long blockingTokens;
+
+    private ExecutorService executor;
+    private FusedChain<Long, Long> fused;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        FusedChain.Builder<Long, Long> builder = FusedChain.builder();
+        for (int i = 0; i < stages / 2; i++) {
+            builder = builder.cheap(StageFusionBenchmark::cheap);
+        }
+        builder = builder.blocking(this::blocking, executor);
+        for (int i = stages / 2; i < stages; i++) {
+            builder = builder.cheap(StageFusionBenchmark::cheap);
+        }
+        fused = builder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5L, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public Long naiveAllAsync() {
+        CompletableFuture<Long> future = CompletableFuture.completedFuture(1L);
+        for (int i = 0; i < stages / 2; i++) {
+            future = future.thenApplyAsync(StageFusionBenchmark::cheap, executor);
+        }
+        future = future.thenApplyAsync(this::blocking, executor);
+        for (int i = stages / 2; i < stages; i++) {
+            future = future.thenApplyAsync(StageFusionBenchmark::cheap, executor);
+        }
+        return future.join();
+    }
+
+    @Benchmark
+    public Long fused() {
+        return fused.apply(1L).join();
+    }
+
+    private static Long cheap(final Long value) {
+        return value * 31L + 7L;
+    }
+
+    private Long blocking(final Long value) {
+        Blackhole.consumeCPU(blockingTokens);
+        return value + 1L;
+    }
+
+}
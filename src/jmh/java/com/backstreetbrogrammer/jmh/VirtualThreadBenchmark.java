@@ -0,0 +1,79 @@
+package com.backstreetbrogrammer.jmh;
+
+import com.backstreetbrogrammer.ch01_intro.FetchMarketDataAsynchronouslyExecutorService;
+import com.backstreetbrogrammer.executor.VirtualThreads;
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
+import com.backstreetbrogrammer.model.MarketData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking fan-out of many concurrent venue calls: the fixed 4 thread pool used by
+ * {@code FetchMarketDataAsynchronouslyExecutorService} against a platform thread per task and a virtual thread per
+ * task executor. The {@code virtual} executor needs Java 21+, so it is not in the default parameters and has to be
+ * asked for explicitly:
+ * <pre>
+ * java -jar target/benchmarks.jar VirtualThreadBenchmark -p executor=fixed4,threadPerTask,virtual
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    private static final String SYMBOL = "META";
+
+    @Param({"fixed4", "threadPerTask"})
+    private String executor;
+
+    @Param({"10", "1000", "10000"})
+    private int sources;
+
+    @Param({"10"})
+    private long latencyMillis;
+
+    private List<SimulatedMarketDataSource> venues;
+    private ExecutorService executorService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        venues = new ArrayList<>(sources);
+        for (int i = 0; i < sources; i++) {
+            venues.add(new SimulatedMarketDataSource("Venue-" + i, 40D, 80D, latencyMillis, latencyMillis + 1L));
+        }
+        switch (executor) {
+            case "fixed4":
+                executorService = Executors.newFixedThreadPool(4);
+                break;
+            case "threadPerTask":
+                executorService = Executors.newCachedThreadPool();
+                break;
+            case "virtual":
+                executorService = VirtualThreads.newVirtualThreadPerTaskExecutor();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown executor: " + executor);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executorService.shutdownNow();
+        executorService.awaitTermination(5L, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public MarketData blockingFanOut() throws ExecutionException, InterruptedException {
+        return FetchMarketDataAsynchronouslyExecutorService.bestPrice(executorService, venues, SYMBOL);
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.backstreetbrogrammer.ch01_intro;
 
+import com.backstreetbrogrammer.executor.AsyncExecutors;
+
 import java.util.concurrent.*;
 
 public class CompletableFutureAsFuture {
@@ -7,7 +9,7 @@ public class CompletableFutureAsFuture {
     public Future<String> calculateAsync() {
         final CompletableFuture<String> completableFuture = new CompletableFuture<>();
 
-        Executors.newCachedThreadPool().submit(() -> {
+        AsyncExecutors.shared().io().submit(() -> {
             TimeUnit.MILLISECONDS.sleep(500L);
             completableFuture.complete("Hello Students");
             return null;
@@ -1,81 +1,50 @@
 package com.backstreetbrogrammer.ch01_intro;
 
+import com.backstreetbrogrammer.executor.AsyncExecutors;
+import com.backstreetbrogrammer.executor.ForkJoinPoolMonitor;
+import com.backstreetbrogrammer.logging.EventLogger;
+import com.backstreetbrogrammer.marketdata.BestPriceConsolidator;
+import com.backstreetbrogrammer.marketdata.MarketDataSource;
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
 import com.backstreetbrogrammer.model.MarketData;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public class FetchMarketDataAsynchronouslyCompletableFuture {
 
+    private static final EventLogger LOG = EventLogger.shared();
+    private static final int BEST_PRICE = LOG.register("Best price [CF ] = {} ({} ms)");
+
     public static void main(final String[] args) {
-        run();
+        // reports on System.err if the common pool stalls for 50 ms or more
+        try (final ForkJoinPoolMonitor monitor =
+                     ForkJoinPoolMonitor.commonPool(Duration.ofMillis(50L), AsyncExecutors.shared().scheduler())) {
+            run();
+            System.out.printf("Common pool stalls: %d, longest %d ms%n", monitor.getStalls(),
+                              Duration.ofNanos(monitor.getLongestStallNanos()).toMillis());
+        }
     }
 
     public static void run() {
-        final ThreadLocalRandom random = ThreadLocalRandom.current();
-
-        final Supplier<MarketData> fetchMarketDataReuters =
-                () -> {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    } catch (final InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return new MarketData("Reuters", "META", random.nextDouble(40D, 60D));
-                };
-
-        final Supplier<MarketData> fetchMarketDataBloomberg =
-                () -> {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    } catch (final InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return new MarketData("Bloomberg", "META", random.nextDouble(30D, 70D));
-                };
-
-        final Supplier<MarketData> fetchMarketDataExegy =
-                () -> {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    } catch (final InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return new MarketData("Exegy", "META", random.nextDouble(40D, 80D));
-                };
-
-        final var marketDataTasks =
-                List.of(fetchMarketDataReuters, fetchMarketDataBloomberg, fetchMarketDataExegy);
-
-        final Instant start = Instant.now();
+        run(ForkJoinPool.commonPool());
+    }
 
-        // run all the tasks asynchronously
-        final List<CompletableFuture<MarketData>> futures = new ArrayList<>();
-        for (final Supplier<MarketData> task : marketDataTasks) {
-            final CompletableFuture<MarketData> future = CompletableFuture.supplyAsync(task);
-            futures.add(future);
+    public static void run(final Executor executor) {
+        final BestPriceConsolidator consolidator = new BestPriceConsolidator(executor);
+        for (final MarketDataSource source : SimulatedMarketDataSource.venues()) {
+            consolidator.register(source);
         }
 
-        final List<MarketData> marketDataList = new ArrayList<>();
-        for (final CompletableFuture<MarketData> future : futures) {
-            final MarketData marketData = future.join();
-            marketDataList.add(marketData);
-        }
+        final Instant start = Instant.now();
 
-        final MarketData bestMarketData =
-                marketDataList.stream()
-                              .min(Comparator.comparing(MarketData::getPrice))
-                              .orElseThrow();
+        // run all the tasks asynchronously and reduce to the best price
+        final MarketData bestMarketData = consolidator.bestPrice("META").join();
 
         final long timeElapsed = Duration.between(start, Instant.now()).toMillis();
-        System.out.printf("Best price [CF ] = %s (%d ms)%n", bestMarketData, timeElapsed);
+        LOG.event(BEST_PRICE).arg(bestMarketData).arg(timeElapsed).commit();
     }
 
 }
@@ -1,5 +1,8 @@
 package com.backstreetbrogrammer.ch01_intro;
 
+import com.backstreetbrogrammer.executor.AsyncExecutors;
+import com.backstreetbrogrammer.logging.EventLogger;
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
 import com.backstreetbrogrammer.model.MarketData;
 
 import java.time.Duration;
@@ -11,36 +14,32 @@ import java.util.concurrent.*;
 
 public class FetchMarketDataAsynchronouslyExecutorService {
 
+    private static final EventLogger LOG = EventLogger.shared();
+    private static final int BEST_PRICE = LOG.register("Best price [ES ] = {} ({} ms)");
+
     public static void main(final String[] args) throws ExecutionException, InterruptedException {
         run();
     }
 
     public static void run() throws ExecutionException, InterruptedException {
-        final ThreadLocalRandom random = ThreadLocalRandom.current();
-
-        final Callable<MarketData> fetchMarketDataReuters =
-                () -> {
-                    TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    return new MarketData("Reuters", "META", random.nextDouble(40D, 60D));
-                };
+        final List<SimulatedMarketDataSource> sources = SimulatedMarketDataSource.venues();
 
-        final Callable<MarketData> fetchMarketDataBloomberg =
-                () -> {
-                    TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    return new MarketData("Bloomberg", "META", random.nextDouble(30D, 70D));
-                };
+        final ExecutorService executor = AsyncExecutors.shared().blocking();
+        final Instant start = Instant.now();
 
-        final Callable<MarketData> fetchMarketDataExegy =
-                () -> {
-                    TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    return new MarketData("Exegy", "META", random.nextDouble(40D, 80D));
-                };
+        final MarketData bestMarketData = bestPrice(executor, sources, "META");
 
-        final var marketDataTasks =
-                List.of(fetchMarketDataReuters, fetchMarketDataBloomberg, fetchMarketDataExegy);
+        final long timeElapsed = Duration.between(start, Instant.now()).toMillis();
+        LOG.event(BEST_PRICE).arg(bestMarketData).arg(timeElapsed).commit();
+    }
 
-        final var executor = Executors.newFixedThreadPool(4);
-        final Instant start = Instant.now();
+    public static MarketData bestPrice(final ExecutorService executor,
+                                       final List<SimulatedMarketDataSource> sources,
+                                       final String symbol) throws ExecutionException, InterruptedException {
+        final List<Callable<MarketData>> marketDataTasks = new ArrayList<>(sources.size());
+        for (final SimulatedMarketDataSource source : sources) {
+            marketDataTasks.add(() -> source.get(symbol));
+        }
 
         // run all the tasks asynchronously
         final List<Future<MarketData>> futures = executor.invokeAll(marketDataTasks);
@@ -51,15 +50,9 @@ public class FetchMarketDataAsynchronouslyExecutorService {
             marketDataList.add(marketData);
         }
 
-        final MarketData bestMarketData =
-                marketDataList.stream()
-                              .min(Comparator.comparing(MarketData::getPrice))
-                              .orElseThrow();
-
-        final long timeElapsed = Duration.between(start, Instant.now()).toMillis();
-        System.out.printf("Best price [ES ] = %s (%d ms)%n", bestMarketData, timeElapsed);
-
-        executor.shutdown();
+        return marketDataList.stream()
+                             .min(Comparator.comparingDouble(MarketData::getPrice))
+                             .orElseThrow();
     }
 
 }
@@ -1,59 +1,44 @@
 package com.backstreetbrogrammer.ch01_intro;
 
+import com.backstreetbrogrammer.logging.EventLogger;
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
 import com.backstreetbrogrammer.model.MarketData;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.TimeUnit;
 
 public class FetchMarketDataSynchronously {
 
+    private static final EventLogger LOG = EventLogger.shared();
+    private static final int BEST_PRICE = LOG.register("Best price [SYNC ] = {} ({} ms)");
+
     public static void main(final String[] args) {
         run();
     }
 
     public static void run() {
-        final ThreadLocalRandom random = ThreadLocalRandom.current();
-
-        final Callable<MarketData> fetchMarketDataReuters =
-                () -> {
-                    TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    return new MarketData("Reuters", "META", random.nextDouble(40D, 60D));
-                };
-
-        final Callable<MarketData> fetchMarketDataBloomberg =
-                () -> {
-                    TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    return new MarketData("Bloomberg", "META", random.nextDouble(30D, 70D));
-                };
-
-        final Callable<MarketData> fetchMarketDataExegy =
-                () -> {
-                    TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    return new MarketData("Exegy", "META", random.nextDouble(40D, 80D));
-                };
-
-        final var marketDataTasks =
-                List.of(fetchMarketDataReuters, fetchMarketDataBloomberg, fetchMarketDataExegy);
+        final List<SimulatedMarketDataSource> sources = SimulatedMarketDataSource.venues();
 
         final Instant start = Instant.now();
-        final MarketData bestMarketData =
-                marketDataTasks.stream()
-                               .map(FetchMarketDataSynchronously::fetchMarketData)
-                               .min(Comparator.comparing(MarketData::getPrice))
-                               .orElseThrow();
+        final MarketData bestMarketData = bestPrice(sources, "META");
         final long timeElapsed = Duration.between(start, Instant.now()).toMillis();
-        System.out.printf("Best price [SYNC ] = %s (%d ms)%n", bestMarketData, timeElapsed);
+        LOG.event(BEST_PRICE).arg(bestMarketData).arg(timeElapsed).commit();
+    }
+
+    public static MarketData bestPrice(final List<SimulatedMarketDataSource> sources, final String symbol) {
+        return sources.stream()
+                      .map(source -> fetchMarketData(source, symbol))
+                      .min(Comparator.comparingDouble(MarketData::getPrice))
+                      .orElseThrow();
     }
 
-    private static MarketData fetchMarketData(final Callable<MarketData> task) {
+    private static MarketData fetchMarketData(final SimulatedMarketDataSource source, final String symbol) {
         try {
-            return task.call();
-        } catch (final Exception e) {
+            return source.get(symbol);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
     }
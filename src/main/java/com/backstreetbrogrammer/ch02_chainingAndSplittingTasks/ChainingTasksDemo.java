@@ -1,16 +1,40 @@
 package com.backstreetbrogrammer.ch02_chainingAndSplittingTasks;
 
+import com.backstreetbrogrammer.executor.AsyncExecutors;
+import com.backstreetbrogrammer.journal.QuoteJournal;
+import com.backstreetbrogrammer.logging.EventLogger;
 import com.backstreetbrogrammer.model.Database;
 import com.backstreetbrogrammer.model.Email;
 import com.backstreetbrogrammer.model.MarketData;
+import com.backstreetbrogrammer.pipeline.AggregatingNotifier;
+import com.backstreetbrogrammer.pipeline.BatchingStage;
+import com.backstreetbrogrammer.pipeline.Pipeline;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.stream.Stream;
 
 public class ChainingTasksDemo {
 
-    public static void main(final String[] args) throws ExecutionException, InterruptedException {
+    // formatted and written to System.out on the logger's thread, not on the stage's
+    private static final EventLogger LOG = EventLogger.shared();
+    private static final int WRITTEN = LOG.register("Written MarketData [{}] to DB [{}]");
+    private static final int WRITTEN_BATCH = LOG.register("Written {} MarketData to DB [{}]");
+    private static final int EMAILED = LOG.register("Email DB [{}] details to [{}]");
+    private static final int DIGEST = LOG.register("Email DB [{}] digest of {} writes to [{}]");
+
+    public static void main(final String[] args) throws ExecutionException, InterruptedException, IOException {
         runBlocking();
         runAsync();
+        runBatched();
+        runPipelined();
+        runJournaled();
     }
 
     private static void runAsync() {
@@ -23,8 +47,96 @@ public class ChainingTasksDemo {
         // continue....
     }
 
+    private static void runBatched() {
+        final AsyncExecutors executors = AsyncExecutors.shared();
+        try (final BatchingStage<MarketData, Database> dbWriter =
+                     new BatchingStage<>(100, Duration.ofMillis(5L), ChainingTasksDemo::writeToDB,
+                                         executors.io(), executors.scheduler())) {
+            // one digest email per table every 50 ms instead of one email per write
+            final AggregatingNotifier<Database, Database, Integer, Email> notifier =
+                    new AggregatingNotifier<>(db -> db, db -> 0, (writes, db) -> writes + 1,
+                                              ChainingTasksDemo::emailDatabaseDigest,
+                                              Duration.ofMillis(50L), 2, executors.io(), executors.scheduler());
+
+            final List<CompletableFuture<Email>> emailCFs = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                emailCFs.add(CompletableFuture.supplyAsync(() -> getMarketData(), executors.io())
+                                              .thenCompose(marketData -> dbWriter.submit(marketData))
+                                              .thenCompose(db -> notifier.submit(db)));
+            }
+
+            CompletableFuture.allOf(emailCFs.toArray(new CompletableFuture<?>[0])).join();
+            System.out.printf("Written %d MarketData in %d DB batches, sent %d digest emails%n",
+                              dbWriter.getItems(), dbWriter.getBatches(), notifier.getDigests());
+        }
+
+        // continue....
+    }
+
+    private static void runPipelined() {
+        final AsyncExecutors executors = AsyncExecutors.shared();
+        try (final BatchingStage<MarketData, Database> dbWriter =
+                     new BatchingStage<>(100, Duration.ofMillis(5L), ChainingTasksDemo::writeToDB,
+                                         executors.io(), executors.scheduler())) {
+            final AggregatingNotifier<Database, Database, Integer, Email> notifier =
+                    new AggregatingNotifier<>(db -> db, db -> 0, (writes, db) -> writes + 1,
+                                              ChainingTasksDemo::emailDatabaseDigest,
+                                              Duration.ofMillis(50L), 2, executors.io(), executors.scheduler());
+
+            // stages are declared once, then many ticks flow through them concurrently
+            final Pipeline<Integer, Email> pipeline =
+                    Pipeline.<Integer>builder()
+                            .stage("fetch", tick -> getMarketData(), executors.io(), 64)
+                            .asyncStage("persist", dbWriter::submit, 1_000)
+                            .asyncStage("notify", notifier::submit, 1_000)
+                            .build();
+
+            final List<Integer> ticks = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                ticks.add(i);
+            }
+            pipeline.process(ticks, 1_000, email -> { }).join();
+            System.out.println(pipeline.metrics());
+        }
+
+        // continue....
+    }
+
+    private static void runJournaled() throws IOException {
+        final AsyncExecutors executors = AsyncExecutors.shared();
+        final Path directory = Files.createTempDirectory("quote-journal");
+        try (final QuoteJournal journal = QuoteJournal.open(directory);
+             final BatchingStage<MarketData, Database> dbWriter =
+                     new BatchingStage<>(1_000, Duration.ofMillis(1L), batch -> writeToDB(journal, batch),
+                                         executors.io(), executors.scheduler())) {
+            final List<CompletableFuture<Database>> dbCFs = new ArrayList<>();
+            for (int i = 0; i < 100_000; i++) {
+                dbCFs.add(dbWriter.submit(getMarketData()));
+            }
+            CompletableFuture.allOf(dbCFs.toArray(new CompletableFuture<?>[0])).join();
+
+            // replay reads the mapped segments in place
+            final double[] sum = new double[1];
+            final long start = System.nanoTime();
+            final long replayed = journal.replay(1L, record -> {
+                sum[0] += record.getPrice();
+                return true;
+            });
+            System.out.printf("Journaled %d MarketData in %d batches to %s, replayed %d (avg price %.2f) in %d us%n",
+                              journal.getLastSequence(), dbWriter.getBatches(), journal.getDirectory(), replayed,
+                              sum[0] / replayed, (System.nanoTime() - start) / 1_000L);
+        } finally {
+            // the journal is closed, and its segments unmapped, by now
+            try (final Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+
+        // continue....
+    }
+
     private static void runBlocking() throws ExecutionException, InterruptedException {
-        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final ExecutorService executor = AsyncExecutors.shared().io();
 
         final Future<MarketData> futureMarketData = executor.submit(() -> getMarketData());
         final MarketData marketData = futureMarketData.get();
@@ -46,15 +158,36 @@ public class ChainingTasksDemo {
     private static Database writeToDB(final MarketData marketData) {
         // some DB operations
         final Database db = new Database("Oracle", "MarketData-Meta");
-        System.out.printf("Written MarketData [%s] to DB [%s]%n", marketData, db);
+        LOG.event(WRITTEN).arg(marketData).arg(db).commit();
+        return db;
+    }
+
+    private static Database writeToDB(final List<MarketData> marketDataBatch) {
+        // some DB batch operations, a single round trip for the whole batch
+        final Database db = new Database("Oracle", "MarketData-Meta");
+        LOG.event(WRITTEN_BATCH).arg(marketDataBatch.size()).arg(db).commit();
         return db;
     }
 
+    private static Database writeToDB(final QuoteJournal journal, final List<MarketData> marketDataBatch) {
+        // local append-only persistence: one memory copy per record, fsync in the background
+        journal.append(marketDataBatch);
+        return new Database("Journal", journal.getDirectory().getFileName().toString());
+    }
+
     private static Email emailDatabaseDetails(final Database db) {
         // email logic...
         final Email email = new Email("guidemy@mail.com", "rishi@mail.com",
                                       "chaining tasks", "this course is awesome");
-        System.out.printf("Email DB [%s] details to [%s]%n", db, email);
+        LOG.event(EMAILED).arg(db).arg(email).commit();
+        return email;
+    }
+
+    private static Email emailDatabaseDigest(final Database db, final int writes) {
+        // email logic...
+        final Email email = new Email("guidemy@mail.com", "rishi@mail.com",
+                                      "chaining tasks digest", String.format("%d writes to %s", writes, db));
+        LOG.event(DIGEST).arg(db).arg(writes).arg(email).commit();
         return email;
     }
 }
@@ -1,63 +1,127 @@
 package com.backstreetbrogrammer.ch02_chainingAndSplittingTasks;
 
+import com.backstreetbrogrammer.concurrent.Futures;
+import com.backstreetbrogrammer.concurrent.RetryBudget;
+import com.backstreetbrogrammer.executor.AsyncExecutors;
+import com.backstreetbrogrammer.marketdata.ResilientMarketDataSource;
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
 import com.backstreetbrogrammer.model.MarketData;
+import com.backstreetbrogrammer.streaming.TickPublisher;
+import com.backstreetbrogrammer.streaming.TopOfBookProcessor;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.util.Comparator.comparing;
+import static java.util.Comparator.comparingDouble;
 
 public class CompletableFutureAllOfDemo {
 
     public static void main(final String[] args) {
-        final ThreadLocalRandom random = ThreadLocalRandom.current();
-
-        final Supplier<MarketData> fetchMarketDataReuters =
-                () -> {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    } catch (final InterruptedException e) {
-                        throw new RuntimeException(e.getMessage());
-                    }
-                    return new MarketData("Reuters", "META", random.nextDouble(40D, 60D));
-                };
-
-        final Supplier<MarketData> fetchMarketDataBloomberg =
-                () -> {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    } catch (final InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return new MarketData("Bloomberg", "META", random.nextDouble(30D, 70D));
-                };
-
-        final Supplier<MarketData> fetchMarketDataExegy =
-                () -> {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    } catch (final InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return new MarketData("Exegy", "META", random.nextDouble(40D, 80D));
-                };
-
-        final CompletableFuture<MarketData> cfReuters = CompletableFuture.supplyAsync(fetchMarketDataReuters);
-        final CompletableFuture<MarketData> cfBloomberg = CompletableFuture.supplyAsync(fetchMarketDataBloomberg);
-        final CompletableFuture<MarketData> cfExegy = CompletableFuture.supplyAsync(fetchMarketDataExegy);
+        final Executor executor = ForkJoinPool.commonPool();
+        runAllOf(executor);
+        runWithHungVenue(executor);
+        runStreaming(executor);
+    }
+
+    private static void runAllOf(final Executor executor) {
+        final CompletableFuture<MarketData> cfReuters = SimulatedMarketDataSource.reuters().fetch("META", executor);
+        final CompletableFuture<MarketData> cfBloomberg = SimulatedMarketDataSource.bloomberg().fetch("META", executor);
+        final CompletableFuture<MarketData> cfExegy = SimulatedMarketDataSource.exegy().fetch("META", executor);
 
         final CompletableFuture<Void> done = CompletableFuture.allOf(cfReuters, cfBloomberg, cfExegy);
 
         final MarketData bestMarketData =
                 done.thenApply(v -> Stream.of(cfReuters, cfBloomberg, cfExegy)  // Stream<CompletableFuture<MarketData>>
                                           .map(CompletableFuture::join)         // Stream<MarketData>
-                                          .min(comparing(MarketData::getPrice)) // Optional<MarketData>
+                                          .min(comparingDouble(MarketData::getPrice)) // Optional<MarketData>
                                           .orElseThrow()
                               ).join();
 
         System.out.printf("Best Priced Market Data: %s%n", bestMarketData);
     }
+
+    private static void runWithHungVenue(final Executor executor) {
+        // a venue which never answers in time: without a timeout, allOf(...).join() would wait for a minute
+        final List<SimulatedMarketDataSource> venues = new ArrayList<>(SimulatedMarketDataSource.venues());
+        venues.add(new SimulatedMarketDataSource("Hung", 10D, 20D, 60_000L, 60_001L));
+        final List<ResilientMarketDataSource> sources =
+                ResilientMarketDataSource.wrapAll(venues, new RetryBudget(0.1D, 2));
+
+        for (int i = 1; i <= 5; i++) {
+            final long start = System.nanoTime();
+            final List<CompletableFuture<MarketData>> futures =
+                    sources.stream()
+                           .map(source -> source.fetch("META", executor)
+                                                .exceptionally(throwable -> null)) // a failed venue is skipped
+                           .collect(Collectors.toList());
+
+            // one counter for all the venues, and the quotes reduced once they are all in
+            final MarketData bestMarketData =
+                    Futures.allOf(futures, quotes -> quotes.stream()
+                                                           .filter(Objects::nonNull)
+                                                           .min(comparingDouble(MarketData::getPrice))
+                                                           .orElseThrow())
+                           .join();
+
+            System.out.printf("Run %d: best price = %s (%d ms), %s%n", i, bestMarketData,
+                              (System.nanoTime() - start) / 1_000_000L,
+                              sources.get(sources.size() - 1).getCircuitBreaker());
+        }
+    }
+
+    private static void runStreaming(final Executor executor) {
+        // every venue streams a tick each 10 ms instead of being polled; the best price is kept up to date as
+        // they arrive and only its changes reach the subscriber, conflated while it is busy printing
+        final List<TickPublisher> venues =
+                SimulatedMarketDataSource.venues().stream()
+                                         .map(venue -> new TickPublisher(venue, List.of("META"),
+                                                                         Duration.ofMillis(10L), 256, executor,
+                                                                         AsyncExecutors.shared().scheduler()))
+                                         .collect(Collectors.toList());
+        try (final TopOfBookProcessor topOfBook = new TopOfBookProcessor(executor, 256)) {
+            venues.forEach(topOfBook::connect);
+            topOfBook.subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(final Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1L);
+                }
+
+                @Override
+                public void onNext(final MarketData marketData) {
+                    System.out.printf("Best price update: %s%n", marketData);
+                    subscription.request(1L);
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    throwable.printStackTrace();
+                }
+
+                @Override
+                public void onComplete() {
+                    System.out.println("Best price stream completed");
+                }
+            });
+
+            TimeUnit.SECONDS.sleep(1L);
+            System.out.printf("ticks received = %d, best price changes = %d, conflated = %d%n",
+                              topOfBook.getReceived(), topOfBook.getPublished(), topOfBook.getConflated());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            venues.forEach(TickPublisher::close);
+        }
+    }
 }
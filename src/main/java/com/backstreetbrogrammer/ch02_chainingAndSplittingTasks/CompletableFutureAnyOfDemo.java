@@ -1,57 +1,70 @@
 package com.backstreetbrogrammer.ch02_chainingAndSplittingTasks;
 
+import com.backstreetbrogrammer.concurrent.Futures;
+import com.backstreetbrogrammer.executor.AsyncExecutors;
+import com.backstreetbrogrammer.marketdata.HedgedFetcher;
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
 import com.backstreetbrogrammer.model.MarketData;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public class CompletableFutureAnyOfDemo {
 
     public static void main(final String[] args) {
-        final ThreadLocalRandom random = ThreadLocalRandom.current();
-
-        final Supplier<MarketData> fetchMarketDataReuters =
-                () -> {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    } catch (final InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return new MarketData("Reuters", "META", random.nextDouble(40D, 60D));
-                };
-
-        final Supplier<MarketData> fetchMarketDataBloomberg =
-                () -> {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    } catch (final InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return new MarketData("Bloomberg", "META", random.nextDouble(30D, 70D));
-                };
-
-        final Supplier<MarketData> fetchMarketDataExegy =
-                () -> {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(random.nextLong(80L, 120L));
-                    } catch (final InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return new MarketData("Exegy", "META", random.nextDouble(40D, 80D));
-                };
-
-        final CompletableFuture<MarketData> cfReuters = CompletableFuture.supplyAsync(fetchMarketDataReuters);
-        final CompletableFuture<MarketData> cfBloomberg = CompletableFuture.supplyAsync(fetchMarketDataBloomberg);
-        final CompletableFuture<MarketData> cfExegy = CompletableFuture.supplyAsync(fetchMarketDataExegy);
+        final Executor executor = ForkJoinPool.commonPool();
+        runAnyOf(executor);
+        runFirstOf(executor);
+        runHedged(executor);
+    }
+
+    private static void runAnyOf(final Executor executor) {
+        final CompletableFuture<MarketData> cfReuters = SimulatedMarketDataSource.reuters().fetch("META", executor);
+        final CompletableFuture<MarketData> cfBloomberg = SimulatedMarketDataSource.bloomberg().fetch("META", executor);
+        final CompletableFuture<MarketData> cfExegy = SimulatedMarketDataSource.exegy().fetch("META", executor);
 
         CompletableFuture.anyOf(cfReuters, cfBloomberg, cfExegy) // CompletableFuture<Object>
                          .thenAccept(System.out::println)        // CompletableFuture<Void>
                          .join();
 
+        // the losers are still running (and holding their threads)
+        System.out.printf("cfReuters = %s%n", cfReuters);
+        System.out.printf("cfBloomberg = %s%n", cfBloomberg);
+        System.out.printf("cfExegy = %s%n", cfExegy);
+    }
+
+    private static void runFirstOf(final Executor executor) {
+        final CompletableFuture<MarketData> cfReuters = SimulatedMarketDataSource.reuters().fetch("META", executor);
+        final CompletableFuture<MarketData> cfBloomberg = SimulatedMarketDataSource.bloomberg().fetch("META", executor);
+        final CompletableFuture<MarketData> cfExegy = SimulatedMarketDataSource.exegy().fetch("META", executor);
+
+        Futures.firstOf(List.of(cfReuters, cfBloomberg, cfExegy)) // CompletableFuture<MarketData>
+               .thenAccept(System.out::println)                   // CompletableFuture<Void>
+               .join();
+
+        // the losers have been cancelled and their threads interrupted
         System.out.printf("cfReuters = %s%n", cfReuters);
         System.out.printf("cfBloomberg = %s%n", cfBloomberg);
         System.out.printf("cfExegy = %s%n", cfExegy);
     }
+
+    private static void runHedged(final Executor executor) {
+        // one venue per request, a hedge to the next fastest venue past the p95, at most 1 hedge per 10 requests
+        final HedgedFetcher fetcher = new HedgedFetcher(SimulatedMarketDataSource.venues(), 1,
+                                                        Duration.ofMillis(120L), 0.1D,
+                                                        executor, AsyncExecutors.shared().scheduler());
+        for (int i = 0; i < 50; i++) {
+            fetcher.bestPrice("META").join();
+        }
+        System.out.println(fetcher.bestPrice("META").join());
+
+        System.out.printf("ranking = %s%n", fetcher.getRanking());
+        System.out.printf("requests = %d, primaries = %d, hedges = %d, hedges denied = %d%n",
+                          fetcher.getRequests(), fetcher.getPrimaries(), fetcher.getHedges(),
+                          fetcher.getHedgesDenied());
+        fetcher.getVenueLatencies().forEach((venue, latency) -> System.out.printf("%s: %s%n", venue, latency));
+    }
 }
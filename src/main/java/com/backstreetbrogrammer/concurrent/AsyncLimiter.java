@@ -0,0 +1,108 @@
+package com.backstreetbrogrammer.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking semaphore for asynchronous tasks: at most {@code permits} tasks are in flight, the others wait in a
+ * FIFO queue without holding a thread. A permit is released when the task's future completes.
+ */
+public class AsyncLimiter {
+
+    private final int permits;
+
+    // all guarded by this
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private int inFlight;
+    private boolean draining;
+    private boolean drainAgain;
+
+    public AsyncLimiter(final int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be positive but was " + permits);
+        }
+        this.permits = permits;
+    }
+
+    public <T> CompletableFuture<T> submit(final Supplier<? extends CompletionStage<T>> task) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Runnable start = () -> start(task, result);
+        synchronized (this) {
+            if (inFlight >= permits || !waiting.isEmpty()) {
+                waiting.add(start);
+                return result;
+            }
+            inFlight++;
+        }
+        start.run();
+        return result;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return waiting.size();
+    }
+
+    private <T> void start(final Supplier<? extends CompletionStage<T>> task, final CompletableFuture<T> result) {
+        CompletionStage<T> stage;
+        try {
+            stage = task.get();
+        } catch (final Throwable t) {
+            stage = CompletableFuture.failedFuture(t);
+        }
+        stage.whenComplete((value, throwable) -> {
+            release();
+            if (throwable == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    private void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        drain();
+    }
+
+    private void drain() {
+        // one thread hands permits over at a time: tasks which complete synchronously release from inside the loop,
+        // so this is a loop rather than a recursion
+        synchronized (this) {
+            if (draining) {
+                drainAgain = true;
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            final Runnable next;
+            synchronized (this) {
+                if (inFlight < permits && !waiting.isEmpty()) {
+                    next = waiting.poll();
+                    inFlight++;
+                } else if (drainAgain) {
+                    drainAgain = false;
+                    continue;
+                } else {
+                    draining = false;
+                    return;
+                }
+            }
+            next.run();
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.backstreetbrogrammer.concurrent;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for asynchronous calls to one backend.
+ * <ul>
+ *     <li>{@code CLOSED}: calls go through; {@code failureThreshold} consecutive failures open the circuit.</li>
+ *     <li>{@code OPEN}: calls fail immediately with a {@link CircuitOpenException}, without touching the
+ *     backend, for {@code openDuration}.</li>
+ *     <li>{@code HALF_OPEN}: one probe call at a time goes through; {@code probesToClose} successful probes in a row
+ *     close the circuit, a failed probe opens it again.</li>
+ * </ul>
+ * Calls cancelled by their caller count neither as success nor failure.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int probesToClose;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder rejected = new LongAdder();
+
+    // all guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private int probeSuccesses;
+    private long generation;
+
+    public CircuitBreaker(final String name, final int failureThreshold, final Duration openDuration,
+                          final int probesToClose) {
+        this(name, failureThreshold, openDuration, probesToClose, System::nanoTime);
+    }
+
+    CircuitBreaker(final String name, final int failureThreshold, final Duration openDuration,
+                   final int probesToClose, final LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive but was " + failureThreshold);
+        }
+        if (openDuration.isNegative()) {
+            throw new IllegalArgumentException("openDuration must not be negative but was " + openDuration);
+        }
+        if (probesToClose < 1) {
+            throw new IllegalArgumentException("probesToClose must be positive but was " + probesToClose);
+        }
+        this.name = Objects.requireNonNull(name, "name");
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.probesToClose = probesToClose;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+    }
+
+    /**
+     * Runs the call if the circuit lets it through. Cancelling the returned future cancels the call.
+     */
+    public <T> CompletableFuture<T> call(final Supplier<? extends CompletionStage<T>> call) {
+        final Permit permit = acquire();
+        if (permit == null) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new CircuitOpenException("Circuit open for " + name));
+        }
+
+        final CompletableFuture<T> future;
+        try {
+            future = call.get().toCompletableFuture();
+        } catch (final Throwable t) {
+            onResult(permit, t);
+            return CompletableFuture.failedFuture(t);
+        }
+        // completes only once the outcome is recorded, so a caller retrying on failure sees the new state
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, throwable) -> {
+            onResult(permit, throwable);
+            if (throwable == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        });
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private synchronized Permit acquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                return null;
+            }
+            state = State.HALF_OPEN;
+            probeSuccesses = 0;
+            probeInFlight = false;
+            generation++;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return null;
+            }
+            probeInFlight = true;
+            return new Permit(generation, true);
+        }
+        return new Permit(generation, false);
+    }
+
+    private synchronized void onResult(final Permit permit, final Throwable throwable) {
+        if (permit.generation != generation) {
+            return; // admitted before the last state change: its outcome is stale
+        }
+        final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        if (permit.probe) {
+            probeInFlight = false;
+        }
+        if (cause instanceof CancellationException) {
+            return;
+        }
+
+        if (cause == null) {
+            if (permit.probe && ++probeSuccesses >= probesToClose) {
+                state = State.CLOSED;
+                generation++;
+            }
+            consecutiveFailures = 0;
+        } else if (permit.probe || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            consecutiveFailures = 0;
+            generation++;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("CircuitBreaker{name='%s', state=%s}", name, getState());
+    }
+
+    private static final class Permit {
+
+        private final long generation;
+        private final boolean probe;
+
+        private Permit(final long generation, final boolean probe) {
+            this.generation = generation;
+            this.probe = probe;
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.backstreetbrogrammer.concurrent;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A call rejected by an open {@link CircuitBreaker}, as opposed to one rejected by a saturated executor.
+ */
+public class CircuitOpenException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(final String message) {
+        super(message);
+    }
+
+}
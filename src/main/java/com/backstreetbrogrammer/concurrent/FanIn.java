@@ -0,0 +1,93 @@
+package com.backstreetbrogrammer.concurrent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Future of the reduction of N input futures; see {@link Futures#allOf(List, Function)}.
+ * <p>
+ * One array holds the inputs and another their results, filled once all of them have completed, right before the
+ * reducer runs. A single countdown tracks the inputs, and every input is observed by the same callback instance, so
+ * the only per-input cost is the completion node the JDK allocates for it and a result slot.
+ */
+final class FanIn<T, R> extends CompletableFuture<R> {
+
+    private static final VarHandle REMAINING;
+
+    static {
+        try {
+            REMAINING = MethodHandles.lookup().findVarHandle(FanIn.class, "remaining", int.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Object[] inputs;
+    private final Function<? super List<T>, ? extends R> reducer;
+    private final BiConsumer<Object, Throwable> onInput = this::onInput;
+    @SuppressWarnings("unused") // through REMAINING
+    private volatile int remaining;
+
+    FanIn(final List<? extends CompletableFuture<? extends T>> inputs,
+          final Function<? super List<T>, ? extends R> reducer) {
+        this.inputs = inputs.toArray();
+        this.reducer = reducer;
+        this.remaining = this.inputs.length;
+    }
+
+    void start() {
+        if (inputs.length == 0) {
+            reduce();
+            return;
+        }
+        for (final Object input : inputs) {
+            ((CompletableFuture<?>) input).whenComplete(onInput);
+        }
+    }
+
+    /**
+     * Cancels the inputs too.
+     */
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        final boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            for (final Object input : inputs) {
+                ((CompletableFuture<?>) input).cancel(mayInterruptIfRunning);
+            }
+        }
+        return cancelled;
+    }
+
+    private void onInput(final Object value, final Throwable throwable) {
+        if (throwable != null) {
+            // a failed input never counts down, so the reducer will not run
+            completeExceptionally(throwable);
+        } else if ((int) REMAINING.getAndAdd(this, -1) == 1) {
+            reduce();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reduce() {
+        if (isDone()) {
+            return; // cancelled
+        }
+        final Object[] results = new Object[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            results[i] = ((CompletableFuture<?>) inputs[i]).join(); // all complete: never blocks
+        }
+        try {
+            complete(reducer.apply(Collections.unmodifiableList((List<T>) Arrays.asList(results))));
+        } catch (final Throwable t) {
+            completeExceptionally(t);
+        }
+    }
+
+}
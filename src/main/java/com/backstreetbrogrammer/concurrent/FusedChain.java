@@ -0,0 +1,166 @@
+package com.backstreetbrogrammer.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Reusable {@link CompletableFuture} chain which only hops to another executor where it is needed.
+ * <p>
+ * Stages are declared as cheap (non-blocking, short) or blocking (with the executor they must run on). When the
+ * chain is built, consecutive stages are fused into as few tasks as possible:
+ * <ul>
+ *     <li>leading cheap stages run as one {@code thenApply} on the thread completing the input,</li>
+ *     <li>a blocking stage starts a {@code thenApplyAsync} on its executor, and every following cheap stage, or
+ *     blocking stage on the same executor, runs in that same task.</li>
+ * </ul>
+ * So each {@code *Async} queue hand-off and context switch is one in front of a blocking stage.
+ * <pre>
+ * FusedChain&lt;MarketData, Email&gt; chain =
+ *         FusedChain.&lt;MarketData&gt;builder()
+ *                   .cheap(md -&gt; validate(md))
+ *                   .blocking(md -&gt; writeToDB(md), ioExecutor)
+ *                   .cheap(db -&gt; toEmail(db))
+ *                   .build();
+ * CompletableFuture&lt;Email&gt; email = chain.apply(marketDataCF);
+ * </pre>
+ *
+ * @param <I> input
+ * @param <O> output
+ */
+public class FusedChain<I, O> {
+
+    private final List<Segment> segments;
+
+    private FusedChain(final List<Segment> segments) {
+        this.segments = List.copyOf(segments);
+    }
+
+    public static <I> Builder<I, I> builder() {
+        return new Builder<>(List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<O> apply(final CompletableFuture<? extends I> input) {
+        CompletableFuture<Object> future = (CompletableFuture<Object>) input;
+        for (final Segment segment : segments) {
+            future = segment.executor == null
+                    ? future.thenApply(segment.function)
+                    : future.thenApplyAsync(segment.function, segment.executor);
+        }
+        return (CompletableFuture<O>) future;
+    }
+
+    public CompletableFuture<O> apply(final I input) {
+        return apply(CompletableFuture.completedFuture(input));
+    }
+
+    /**
+     * Number of {@code thenApply} / {@code thenApplyAsync} steps after fusion.
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Number of executor hops per run.
+     */
+    public int getHopCount() {
+        return (int) segments.stream().filter(segment -> segment.executor != null).count();
+    }
+
+    public static final class Builder<I, T> {
+
+        private final List<Step> steps;
+
+        private Builder(final List<Step> steps) {
+            this.steps = steps;
+        }
+
+        /**
+         * A short, non-blocking stage: runs on whichever thread runs the previous stage.
+         */
+        public <R> Builder<I, R> cheap(final Function<? super T, ? extends R> function) {
+            return then(new Step(Objects.requireNonNull(function, "function"), null));
+        }
+
+        /**
+         * A stage which blocks (I/O, locks, long computations) and must run on the given executor.
+         */
+        public <R> Builder<I, R> blocking(final Function<? super T, ? extends R> function, final Executor executor) {
+            return then(new Step(Objects.requireNonNull(function, "function"),
+                                 Objects.requireNonNull(executor, "executor")));
+        }
+
+        public FusedChain<I, T> build() {
+            final List<Segment> segments = new ArrayList<>();
+            Executor current = null;
+            final List<Function<Object, Object>> fused = new ArrayList<>();
+            for (final Step step : steps) {
+                // a blocking stage on another executor than the running segment's one forces a hop
+                if (step.executor != null && step.executor != current) {
+                    if (!fused.isEmpty()) {
+                        segments.add(new Segment(compose(fused), current));
+                        fused.clear();
+                    }
+                    current = step.executor;
+                }
+                fused.add(step.function);
+            }
+            if (!fused.isEmpty()) {
+                segments.add(new Segment(compose(fused), current));
+            }
+            return new FusedChain<>(segments);
+        }
+
+        /**
+         * A builder with one more step; this one is left as is, so chains can branch from it.
+         */
+        private <R> Builder<I, R> then(final Step step) {
+            final List<Step> next = new ArrayList<>(steps);
+            next.add(step);
+            return new Builder<>(next);
+        }
+
+        private static Function<Object, Object> compose(final List<Function<Object, Object>> functions) {
+            if (functions.size() == 1) {
+                return functions.get(0);
+            }
+            final List<Function<Object, Object>> fused = List.copyOf(functions);
+            return value -> {
+                Object result = value;
+                for (final Function<Object, Object> function : fused) {
+                    result = function.apply(result);
+                }
+                return result;
+            };
+        }
+    }
+
+    private static final class Step {
+
+        private final Function<Object, Object> function;
+        private final Executor executor;
+
+        @SuppressWarnings("unchecked")
+        private Step(final Function<?, ?> function, final Executor executor) {
+            this.function = (Function<Object, Object>) function;
+            this.executor = executor;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Function<Object, Object> function;
+        private final Executor executor; // null: runs on the completing thread
+
+        private Segment(final Function<Object, Object> function, final Executor executor) {
+            this.function = function;
+            this.executor = executor;
+        }
+    }
+
+}
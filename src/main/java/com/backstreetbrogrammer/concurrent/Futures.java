@@ -0,0 +1,248 @@
+package com.backstreetbrogrammer.concurrent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * {@link CompletableFuture} combinators which are missing from the JDK.
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Like {@link CompletableFuture#supplyAsync(java.util.function.Supplier, Executor)}, except that cancelling the
+     * returned future interrupts the thread running the task, so a blocked task gives its worker back to the pool.
+     */
+    public static <T> CompletableFuture<T> supplyInterruptibly(final Callable<T> task, final Executor executor) {
+        final InterruptibleTask<T> interruptibleTask = new InterruptibleTask<>(task);
+        executor.execute(interruptibleTask);
+        return interruptibleTask.future;
+    }
+
+    /**
+     * Completes with the first future to complete successfully and cancels (with interruption) all the others.
+     * Fails only if every future fails. Cancelling the returned future cancels all the inputs.
+     */
+    public static <T> CompletableFuture<T> firstOf(final List<? extends CompletableFuture<? extends T>> futures) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        if (futures.isEmpty()) {
+            result.completeExceptionally(new IllegalArgumentException("No futures to race"));
+            return result;
+        }
+
+        final AtomicInteger remaining = new AtomicInteger(futures.size());
+        final AtomicBoolean won = new AtomicBoolean();
+        for (final CompletableFuture<? extends T> future : futures) {
+            future.whenComplete((value, throwable) -> {
+                if (throwable == null) {
+                    if (won.compareAndSet(false, true)) {
+                        // cancel the losers before anyone observes the winner
+                        cancelAll(futures);
+                        result.complete(value);
+                    }
+                } else if (remaining.decrementAndGet() == 0) {
+                    result.completeExceptionally(throwable instanceof CompletionException ? throwable
+                                                         : new CompletionException(throwable));
+                }
+            });
+        }
+
+        result.whenComplete((value, throwable) -> cancelAll(futures));
+        return result;
+    }
+
+    /**
+     * Completes with the results of all the futures, in input order, or fails with the first failure. Unlike
+     * {@link CompletableFuture#allOf(CompletableFuture[])} followed by a stream of {@code join}s, or a tree of
+     * {@code thenCombine}s, waits on all the inputs with one counter and one array. Cancelling the returned future
+     * cancels all the inputs.
+     */
+    public static <T> CompletableFuture<List<T>> allOf(final List<? extends CompletableFuture<? extends T>> futures) {
+        return allOf(futures, Function.identity());
+    }
+
+    /**
+     * Like {@link #allOf(List)}, then reduces the results, as an unmodifiable list in input order, once. A reducer
+     * failure fails the returned future.
+     */
+    public static <T, R> CompletableFuture<R> allOf(final List<? extends CompletableFuture<? extends T>> futures,
+                                                    final Function<? super List<T>, ? extends R> reducer) {
+        final FanIn<T, R> fanIn = new FanIn<>(futures, reducer);
+        fanIn.start();
+        return fanIn;
+    }
+
+    /**
+     * Fails with a {@link TimeoutException} if the future is not complete within the timeout, and then cancels (with
+     * interruption) the future so that a hung task does not keep holding its thread. Unlike
+     * {@link CompletableFuture#orTimeout(long, TimeUnit)}, the input future is not completed by the timeout, and
+     * cancelling the returned future cancels the input.
+     */
+    public static <T> CompletableFuture<T> withTimeout(final CompletableFuture<T> future, final Duration timeout) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(throwable);
+            }
+        });
+        if (!future.isDone()) {
+            CompletableFuture.delayedExecutor(timeout.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+                if (result.completeExceptionally(new TimeoutException("Timed out after " + timeout))) {
+                    future.cancel(true);
+                }
+            });
+        }
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs the attempt until it succeeds, up to {@code maxAttempts} times. Every retry needs a token from the
+     * budget, and failures not matching {@code retryable} are not retried. Retries are immediate: the attempts are
+     * expected to carry their own timeout. Cancelling the returned future cancels the running attempt.
+     */
+    public static <T> CompletableFuture<T> retry(final Supplier<? extends CompletionStage<T>> attempt,
+                                                 final int maxAttempts,
+                                                 final RetryBudget budget,
+                                                 final Predicate<? super Throwable> retryable) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive but was " + maxAttempts);
+        }
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicReference<CompletableFuture<T>> running = new AtomicReference<>();
+        result.whenComplete((value, throwable) -> {
+            final CompletableFuture<T> current = running.get();
+            if (result.isCancelled() && current != null) {
+                current.cancel(true);
+            }
+        });
+        budget.onRequest();
+        retry(attempt, 1, maxAttempts, budget, retryable, running, result);
+        return result;
+    }
+
+    public static <T> CompletableFuture<T> retry(final Supplier<? extends CompletionStage<T>> attempt,
+                                                 final int maxAttempts,
+                                                 final RetryBudget budget) {
+        return retry(attempt, maxAttempts, budget, throwable -> true);
+    }
+
+    private static <T> void retry(final Supplier<? extends CompletionStage<T>> attempt,
+                                  final int attemptNumber,
+                                  final int maxAttempts,
+                                  final RetryBudget budget,
+                                  final Predicate<? super Throwable> retryable,
+                                  final AtomicReference<CompletableFuture<T>> running,
+                                  final CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<T> future;
+        try {
+            future = attempt.get().toCompletableFuture();
+        } catch (final Throwable t) {
+            future = CompletableFuture.failedFuture(t);
+        }
+        running.set(future);
+        if (result.isCancelled()) {
+            future.cancel(true);
+            return;
+        }
+        future.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.complete(value);
+                return;
+            }
+            final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            if (attemptNumber < maxAttempts && retryable.test(cause) && budget.tryRetry()) {
+                retry(attempt, attemptNumber + 1, maxAttempts, budget, retryable, running, result);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private static void cancelAll(final List<? extends CompletableFuture<?>> futures) {
+        for (final CompletableFuture<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static final class InterruptibleTask<T> implements Runnable {
+
+        private final Callable<T> task;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Thread runner;            // guarded by this
+        private boolean interruptedByUs;  // guarded by this
+
+        private InterruptibleTask(final Callable<T> task) {
+            this.task = task;
+            future.whenComplete((value, throwable) -> {
+                if (future.isCancelled()) {
+                    interruptRunner();
+                }
+            });
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (future.isDone()) {
+                    return; // cancelled before it got a thread
+                }
+                runner = Thread.currentThread();
+            }
+            boolean foreignInterrupt = false;
+            try {
+                future.complete(task.call());
+            } catch (final Throwable t) {
+                foreignInterrupt = t instanceof InterruptedException;
+                future.completeExceptionally(t);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    if (interruptedByUs) {
+                        // do not leak our interrupt into the next task run by this pooled thread
+                        Thread.interrupted();
+                        foreignInterrupt = false;
+                    }
+                }
+                if (foreignInterrupt) {
+                    // e.g. shutdownNow(): the pool must still see it
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private synchronized void interruptRunner() {
+            if (runner != null) {
+                interruptedByUs = true;
+                runner.interrupt();
+            }
+        }
+    }
+
+}
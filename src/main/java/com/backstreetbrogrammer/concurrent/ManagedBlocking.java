@@ -0,0 +1,82 @@
+package com.backstreetbrogrammer.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking calls through {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)}.
+ * <p>
+ * On a {@link ForkJoinPool} worker, the pool is told the worker is about to block and may start a spare thread
+ * meanwhile, so blocking tasks do not starve the other tasks of the pool (for the common pool: every parallel stream
+ * and default-executor {@code *Async} stage in the JVM). On any other thread the call simply runs.
+ */
+public final class ManagedBlocking {
+
+    private static final AtomicInteger BLOCKED = new AtomicInteger();
+
+    private ManagedBlocking() {
+    }
+
+    /**
+     * Runs the blocking task on the calling thread, letting its fork join pool compensate while it blocks.
+     */
+    public static <T> T call(final Callable<T> task) throws Exception {
+        final Blocker<T> blocker = new Blocker<>(task);
+        BLOCKED.incrementAndGet();
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } finally {
+            BLOCKED.decrementAndGet();
+        }
+        if (blocker.failure != null) {
+            throw blocker.failure;
+        }
+        return blocker.result;
+    }
+
+    /**
+     * Like {@link Futures#supplyInterruptibly(Callable, Executor)}, for a task which blocks.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(final Callable<T> task, final Executor executor) {
+        return Futures.supplyInterruptibly(() -> call(task), executor);
+    }
+
+    /**
+     * Threads currently inside {@link #call(Callable)}, over all pools.
+     */
+    public static int getBlocked() {
+        return BLOCKED.get();
+    }
+
+    private static final class Blocker<T> implements ForkJoinPool.ManagedBlocker {
+
+        private final Callable<T> task;
+        private T result;
+        private Exception failure;
+        private boolean done;
+
+        private Blocker(final Callable<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                result = task.call();
+            } catch (final Exception e) {
+                failure = e;
+            }
+            done = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.backstreetbrogrammer.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-place parallel sort of an {@code int[]} built on {@link CompletableFuture}s.
+ * <p>
+ * The array is split into {@code parallelism} chunks which are sorted concurrently, then merged pairwise by a
+ * balanced tree of {@code thenCombine} stages. Each merge level ping-pongs between the array and one scratch buffer
+ * of the same length, and leaves are placed so that the root merge lands back in the caller's array. Merges of large
+ * runs are themselves split by co-ranking, so the last levels of the tree do not run on a single thread.
+ * <p>
+ * The scratch buffer is kept between sorts and reused by the next sort needing at most its size.
+ */
+public class ParallelMergeSort {
+
+    static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+    static final int MERGE_SPLIT_THRESHOLD = 1 << 16;
+
+    private final Executor executor;
+    private final int parallelism;
+    private final AtomicReference<int[]> spareBuffer = new AtomicReference<>();
+
+    public ParallelMergeSort() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelMergeSort(final Executor executor, final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive but was " + parallelism);
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sorts {@code array} in ascending order, completing with the same array once sorted.
+     */
+    public CompletableFuture<int[]> sort(final int[] array) {
+        final int length = array.length;
+        final int chunks = Math.min(parallelism, Math.max(1, length / SEQUENTIAL_THRESHOLD));
+        if (chunks == 1) {
+            Arrays.sort(array);
+            return CompletableFuture.completedFuture(array);
+        }
+
+        final int[] buffer = takeBuffer(length);
+        return sort(array, buffer, 0, chunks, chunks, length, true)
+                .thenApply(sorted -> {
+                    releaseBuffer(buffer);
+                    return array;
+                });
+    }
+
+    /**
+     * Sorts chunks {@code [fromChunk, toChunk)} into {@code intoArray ? array : buffer}.
+     */
+    private CompletableFuture<Void> sort(final int[] array, final int[] buffer,
+                                         final int fromChunk, final int toChunk, final int chunks,
+                                         final int length, final boolean intoArray) {
+        final int from = boundary(fromChunk, chunks, length);
+        final int to = boundary(toChunk, chunks, length);
+        if (toChunk - fromChunk == 1) {
+            return CompletableFuture.runAsync(() -> {
+                if (intoArray) {
+                    Arrays.sort(array, from, to);
+                } else {
+                    System.arraycopy(array, from, buffer, from, to - from);
+                    Arrays.sort(buffer, from, to);
+                }
+            }, executor);
+        }
+
+        final int midChunk = (fromChunk + toChunk) >>> 1;
+        final int mid = boundary(midChunk, chunks, length);
+        final int[] source = intoArray ? buffer : array;
+        final int[] target = intoArray ? array : buffer;
+        return sort(array, buffer, fromChunk, midChunk, chunks, length, !intoArray)
+                .thenCombine(sort(array, buffer, midChunk, toChunk, chunks, length, !intoArray), (l, r) -> l)
+                .thenCompose(sorted -> merge(source, from, mid, to, target));
+    }
+
+    private CompletableFuture<Void> merge(final int[] source, final int from, final int mid, final int to,
+                                          final int[] target) {
+        final int parts = Math.min(parallelism, (to - from) / MERGE_SPLIT_THRESHOLD);
+        if (parts < 2) {
+            return CompletableFuture.runAsync(() -> merge(source, from, mid, mid, to, target, from), executor);
+        }
+
+        final CompletableFuture<?>[] merges = new CompletableFuture<?>[parts];
+        final int leftLength = mid - from;
+        final int rightLength = to - mid;
+        int leftStart = 0;
+        int outStart = 0;
+        for (int p = 0; p < parts; p++) {
+            final int outEnd = p == parts - 1 ? to - from : (int) ((long) (to - from) * (p + 1) / parts);
+            final int leftEnd = p == parts - 1
+                    ? leftLength
+                    : coRank(outEnd, source, from, leftLength, mid, rightLength);
+            final int l0 = from + leftStart;
+            final int l1 = from + leftEnd;
+            final int r0 = mid + (outStart - leftStart);
+            final int r1 = mid + (outEnd - leftEnd);
+            final int out = from + outStart;
+            merges[p] = CompletableFuture.runAsync(() -> merge(source, l0, l1, r0, r1, target, out), executor);
+            leftStart = leftEnd;
+            outStart = outEnd;
+        }
+        return CompletableFuture.allOf(merges);
+    }
+
+    /**
+     * Number of elements taken from the left run among the first {@code k} merged elements.
+     */
+    static int coRank(final int k, final int[] source, final int left, final int leftLength,
+                      final int right, final int rightLength) {
+        int low = Math.max(0, k - rightLength);
+        int high = Math.min(k, leftLength);
+        while (low < high) {
+            final int i = (low + high) >>> 1;
+            final int j = k - i;
+            // take more from the left while its next element sorts before the right's last taken one
+            if (j > 0 && i < leftLength && source[left + i] < source[right + j - 1]) {
+                low = i + 1;
+            } else {
+                high = i;
+            }
+        }
+        return low;
+    }
+
+    private static void merge(final int[] source, int left, final int leftEnd, int right, final int rightEnd,
+                              final int[] target, int out) {
+        while (left < leftEnd && right < rightEnd) {
+            target[out++] = source[left] <= source[right] ? source[left++] : source[right++];
+        }
+        final int leftRemaining = leftEnd - left;
+        System.arraycopy(source, left, target, out, leftRemaining);
+        System.arraycopy(source, right, target, out + leftRemaining, rightEnd - right);
+    }
+
+    private static int boundary(final int chunk, final int chunks, final int length) {
+        return (int) ((long) length * chunk / chunks);
+    }
+
+    private int[] takeBuffer(final int length) {
+        final int[] spare = spareBuffer.getAndSet(null);
+        return spare != null && spare.length >= length ? spare : new int[length];
+    }
+
+    private void releaseBuffer(final int[] buffer) {
+        final int[] spare = spareBuffer.get();
+        if (spare == null || spare.length < buffer.length) {
+            spareBuffer.compareAndSet(spare, buffer);
+        }
+    }
+
+}
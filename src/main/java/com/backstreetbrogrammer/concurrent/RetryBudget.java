@@ -0,0 +1,69 @@
+package com.backstreetbrogrammer.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket shared by all the callers retrying against the same backends: every request credits
+ * {@code retryRatio} of a retry, up to {@code maxBurst} retries, and every retry spends one. Retries therefore never
+ * add more than {@code retryRatio} times the request load, however many backends are failing, instead of
+ * multiplying it by the number of attempts.
+ */
+public class RetryBudget {
+
+    private static final long TOKEN = 1_000L;
+
+    private final long creditPerRequest;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+
+    public RetryBudget(final double retryRatio, final int maxBurst) {
+        if (retryRatio < 0D) {
+            throw new IllegalArgumentException("retryRatio must not be negative but was " + retryRatio);
+        }
+        if (maxBurst < 0) {
+            throw new IllegalArgumentException("maxBurst must not be negative but was " + maxBurst);
+        }
+        this.creditPerRequest = Math.round(retryRatio * TOKEN);
+        this.maxTokens = maxBurst * TOKEN;
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    /**
+     * No retries at all.
+     */
+    public static RetryBudget none() {
+        return new RetryBudget(0D, 0);
+    }
+
+    public void onRequest() {
+        if (creditPerRequest > 0L) {
+            tokens.accumulateAndGet(creditPerRequest, (available, credit) -> Math.min(maxTokens, available + credit));
+        }
+    }
+
+    public boolean tryRetry() {
+        long available;
+        do {
+            available = tokens.get();
+            if (available < TOKEN) {
+                denied.increment();
+                return false;
+            }
+        } while (!tokens.compareAndSet(available, available - TOKEN));
+        retries.increment();
+        return true;
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getDenied() {
+        return denied.sum();
+    }
+
+}
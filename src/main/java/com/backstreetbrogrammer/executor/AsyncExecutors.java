@@ -0,0 +1,161 @@
+package com.backstreetbrogrammer.executor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of named, long-lived {@link ManagedExecutor}s.
+ * <p>
+ * Always has an {@value #IO} pool for blocking work, a {@value #CPU} pool for computations and a single threaded
+ * {@link #scheduler()} for timers, which must only run short non-blocking tasks. On Java 21+,
+ * {@link #blocking()} additionally offers a virtual thread per task executor. The process-wide instance returned by
+ * {@link #shared()} is shut down gracefully by a JVM shutdown hook.
+ */
+public class AsyncExecutors implements AutoCloseable {
+
+    public static final String IO = "io";
+    public static final String CPU = "cpu";
+
+    /**
+     * Set to {@code false} to keep blocking work on the platform {@value #IO} pool even when virtual threads exist.
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "async.virtualThreads";
+
+    private static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(5L);
+
+    private final Map<String, ManagedExecutor> executors = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler = newScheduler();
+    private volatile ExecutorService virtual; // created lazily while holding this
+
+    public AsyncExecutors() {
+        this(PoolConfig.io(), PoolConfig.cpu());
+    }
+
+    public AsyncExecutors(final PoolConfig ioConfig, final PoolConfig cpuConfig) {
+        register(IO, ioConfig);
+        register(CPU, cpuConfig);
+    }
+
+    public static AsyncExecutors shared() {
+        return Shared.INSTANCE;
+    }
+
+    public ManagedExecutor io() {
+        return get(IO);
+    }
+
+    public ManagedExecutor cpu() {
+        return get(CPU);
+    }
+
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Executor for blocking calls: a virtual thread per task when supported and enabled, the {@value #IO} pool
+     * otherwise. Virtual threads need no sizing, so thousands of concurrent blocking fetches each get a thread.
+     */
+    public ExecutorService blocking() {
+        if (!VirtualThreads.isSupported()
+                || !Boolean.parseBoolean(System.getProperty(VIRTUAL_THREADS_PROPERTY, "true"))) {
+            return io();
+        }
+        ExecutorService executor = virtual;
+        if (executor == null) {
+            synchronized (this) {
+                executor = virtual;
+                if (executor == null) {
+                    executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+                    virtual = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    public ManagedExecutor get(final String name) {
+        final ManagedExecutor executor = executors.get(name);
+        if (executor == null) {
+            throw new IllegalArgumentException(String.format("No executor named [%s]", name));
+        }
+        return executor;
+    }
+
+    /**
+     * Creates a named pool, or returns the existing one if the name is already taken.
+     */
+    public ManagedExecutor register(final String name, final PoolConfig config) {
+        Objects.requireNonNull(config, "config");
+        return executors.computeIfAbsent(name, key -> new ManagedExecutor(key, config));
+    }
+
+    public Map<String, ExecutorMetrics> metrics() {
+        final Map<String, ExecutorMetrics> metrics = new LinkedHashMap<>();
+        executors.forEach((name, executor) -> metrics.put(name, executor.metrics()));
+        return metrics;
+    }
+
+    /**
+     * Stops accepting tasks, waits up to the timeout for queued and running tasks to finish, then interrupts the
+     * rest. Returns {@code true} if every pool terminated in time.
+     */
+    public boolean shutdown(final Duration timeout) {
+        final List<ExecutorService> pools = new ArrayList<>(executors.values());
+        pools.add(scheduler);
+        synchronized (this) {
+            if (virtual != null) {
+                pools.add(virtual);
+            }
+        }
+        pools.forEach(ExecutorService::shutdown);
+
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        boolean terminated = true;
+        for (final ExecutorService pool : pools) {
+            try {
+                if (!pool.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    pool.shutdownNow();
+                    terminated = false;
+                }
+            } catch (final InterruptedException e) {
+                pool.shutdownNow();
+                Thread.currentThread().interrupt();
+                terminated = false;
+            }
+        }
+        return terminated;
+    }
+
+    @Override
+    public void close() {
+        shutdown(DEFAULT_SHUTDOWN_TIMEOUT);
+    }
+
+    private static ScheduledThreadPoolExecutor newScheduler() {
+        final ScheduledThreadPoolExecutor scheduler =
+                new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("scheduler"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return scheduler;
+    }
+
+    private static final class Shared {
+
+        private static final AsyncExecutors INSTANCE = new AsyncExecutors();
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::close, "async-executors-shutdown"));
+        }
+    }
+
+}
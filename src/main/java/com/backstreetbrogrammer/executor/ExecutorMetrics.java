@@ -0,0 +1,80 @@
+package com.backstreetbrogrammer.executor;
+
+/**
+ * Point in time snapshot of a {@link ManagedExecutor}.
+ */
+public class ExecutorMetrics {
+
+    private final String name;
+    private final int poolSize;
+    private final int activeThreads;
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long completedTasks;
+    private final long rejectedTasks;
+    private final long callerRunsTasks;
+
+    public ExecutorMetrics(final String name,
+                           final int poolSize,
+                           final int activeThreads,
+                           final int queueDepth,
+                           final int queueCapacity,
+                           final long completedTasks,
+                           final long rejectedTasks,
+                           final long callerRunsTasks) {
+        this.name = name;
+        this.poolSize = poolSize;
+        this.activeThreads = activeThreads;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.completedTasks = completedTasks;
+        this.rejectedTasks = rejectedTasks;
+        this.callerRunsTasks = callerRunsTasks;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public long getRejectedTasks() {
+        return rejectedTasks;
+    }
+
+    public long getCallerRunsTasks() {
+        return callerRunsTasks;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutorMetrics{" +
+                "name='" + name + '\'' +
+                ", poolSize=" + poolSize +
+                ", activeThreads=" + activeThreads +
+                ", queueDepth=" + queueDepth +
+                ", queueCapacity=" + queueCapacity +
+                ", completedTasks=" + completedTasks +
+                ", rejectedTasks=" + rejectedTasks +
+                ", callerRunsTasks=" + callerRunsTasks +
+                '}';
+    }
+}
@@ -0,0 +1,138 @@
+package com.backstreetbrogrammer.executor;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Detects starvation of a {@link ForkJoinPool}.
+ * <p>
+ * The pool's own counters cannot tell a worker sleeping in an unmanaged blocking call from one doing useful work, so
+ * every {@code sampleInterval} the monitor also submits an empty probe task and measures how long it waits for a
+ * worker. A probe waiting longer than {@code stallThreshold} means tasks submitted to the pool now are delayed by as
+ * much: the listener is then called once with a {@link PoolSaturation} snapshot, and again when the probe runs.
+ */
+public class ForkJoinPoolMonitor implements AutoCloseable {
+
+    private static final long NO_PROBE = Long.MIN_VALUE;
+
+    private final String name;
+    private final ForkJoinPool pool;
+    private final long stallThresholdNanos;
+    private final Consumer<? super PoolSaturation> listener;
+    private final ScheduledFuture<?> sampler;
+
+    private final AtomicLong probeSubmittedNanos = new AtomicLong(NO_PROBE);
+    private final AtomicLong longestStallNanos = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private boolean stalled; // guarded by this
+
+    public ForkJoinPoolMonitor(final String name,
+                               final ForkJoinPool pool,
+                               final Duration sampleInterval,
+                               final Duration stallThreshold,
+                               final ScheduledExecutorService scheduler,
+                               final Consumer<? super PoolSaturation> listener) {
+        if (sampleInterval.isNegative() || sampleInterval.isZero()) {
+            throw new IllegalArgumentException("sampleInterval must be positive but was " + sampleInterval);
+        }
+        if (stallThreshold.isNegative() || stallThreshold.isZero()) {
+            throw new IllegalArgumentException("stallThreshold must be positive but was " + stallThreshold);
+        }
+        this.name = name;
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.stallThresholdNanos = stallThreshold.toNanos();
+        this.listener = Objects.requireNonNull(listener, "listener");
+        final long intervalNanos = sampleInterval.toNanos();
+        this.sampler = scheduler.scheduleAtFixedRate(this::sample, intervalNanos, intervalNanos,
+                                                     TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Monitors the common pool, reporting stalls on {@code System.err}.
+     */
+    public static ForkJoinPoolMonitor commonPool(final Duration stallThreshold,
+                                                 final ScheduledExecutorService scheduler) {
+        return new ForkJoinPoolMonitor("common", ForkJoinPool.commonPool(), stallThreshold.dividedBy(4L),
+                                       stallThreshold, scheduler,
+                                       saturation -> System.err.printf("ForkJoinPool stall: %s%n", saturation));
+    }
+
+    /**
+     * Takes a snapshot, and submits a new probe unless the previous one is still waiting.
+     */
+    public synchronized PoolSaturation sample() {
+        final long now = System.nanoTime();
+        final long submitted = probeSubmittedNanos.get();
+        long stallNanos = 0L;
+        if (submitted != NO_PROBE) {
+            stallNanos = now - submitted;
+        } else if (probeSubmittedNanos.compareAndSet(NO_PROBE, now)) {
+            try {
+                pool.execute(this::probe);
+            } catch (final RejectedExecutionException e) {
+                probeSubmittedNanos.set(NO_PROBE); // shutting down
+            }
+        }
+
+        final boolean stalledNow = stallNanos >= stallThresholdNanos;
+        final PoolSaturation saturation = snapshot(stallNanos, stalledNow);
+        if (stalledNow && !stalled) {
+            stalled = true;
+            stalls.incrementAndGet();
+            listener.accept(saturation);
+        }
+        return saturation;
+    }
+
+    /**
+     * Stalls detected so far.
+     */
+    public long getStalls() {
+        return stalls.get();
+    }
+
+    /**
+     * Longest wait of a probe which has run.
+     */
+    public long getLongestStallNanos() {
+        return longestStallNanos.get();
+    }
+
+    public synchronized boolean isStalled() {
+        return stalled;
+    }
+
+    @Override
+    public void close() {
+        sampler.cancel(false);
+    }
+
+    private synchronized void probe() {
+        final long waitedNanos = System.nanoTime() - probeSubmittedNanos.getAndSet(NO_PROBE);
+        longestStallNanos.accumulateAndGet(waitedNanos, Math::max);
+        if (stalled) {
+            stalled = false;
+            listener.accept(snapshot(waitedNanos, false));
+        }
+    }
+
+    private PoolSaturation snapshot(final long stallNanos, final boolean stalledNow) {
+        return new PoolSaturation(name,
+                                  pool.getParallelism(),
+                                  pool.getPoolSize(),
+                                  pool.getActiveThreadCount(),
+                                  pool.getRunningThreadCount(),
+                                  pool.getQueuedSubmissionCount(),
+                                  pool.getQueuedTaskCount(),
+                                  stallNanos,
+                                  stalledNow);
+    }
+
+}
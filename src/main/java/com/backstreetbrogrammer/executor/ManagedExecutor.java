@@ -0,0 +1,94 @@
+package com.backstreetbrogrammer.executor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed size, bounded queue thread pool with named daemon threads, an explicit {@link RejectionPolicy} and
+ * {@link ExecutorMetrics}.
+ */
+public class ManagedExecutor extends ThreadPoolExecutor {
+
+    private final String name;
+    private final PoolConfig config;
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final LongAdder callerRunsTasks = new LongAdder();
+
+    public ManagedExecutor(final String name, final PoolConfig config) {
+        super(config.getThreads(), config.getThreads(),
+              0L, TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(config.getQueueCapacity()),
+              new NamedThreadFactory(name));
+        this.name = name;
+        this.config = config;
+        setRejectedExecutionHandler(new PolicyHandler());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    public ExecutorMetrics metrics() {
+        return new ExecutorMetrics(name,
+                                   getPoolSize(),
+                                   getActiveCount(),
+                                   getQueue().size(),
+                                   config.getQueueCapacity(),
+                                   getCompletedTaskCount(),
+                                   rejectedTasks.sum(),
+                                   callerRunsTasks.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "ManagedExecutor{" +
+                "name='" + name + '\'' +
+                ", config=" + config +
+                ", metrics=" + metrics() +
+                '}';
+    }
+
+    private final class PolicyHandler implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                rejectedTasks.increment();
+                throw new RejectedExecutionException(String.format("Executor [%s] is shut down", name));
+            }
+            switch (config.getRejectionPolicy()) {
+                case CALLER_RUNS:
+                    callerRunsTasks.increment();
+                    task.run();
+                    return;
+                case BLOCK:
+                    try {
+                        if (executor.getQueue().offer(task, config.getBlockTimeout().toNanos(),
+                                                      TimeUnit.NANOSECONDS)) {
+                            return;
+                        }
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    rejectedTasks.increment();
+                    throw new RejectedExecutionException(
+                            String.format("Executor [%s] queue stayed full for %s", name, config.getBlockTimeout()));
+                case ABORT:
+                default:
+                    rejectedTasks.increment();
+                    throw new RejectedExecutionException(
+                            String.format("Executor [%s] queue is full (%d tasks)", name,
+                                          config.getQueueCapacity()));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.backstreetbrogrammer.executor;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Sizing and overload behaviour of a {@link ManagedExecutor}.
+ */
+public class PoolConfig {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    private final int threads;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final Duration blockTimeout;
+
+    public PoolConfig(final int threads, final int queueCapacity, final RejectionPolicy rejectionPolicy) {
+        this(threads, queueCapacity, rejectionPolicy, Duration.ofSeconds(1L));
+    }
+
+    public PoolConfig(final int threads,
+                      final int queueCapacity,
+                      final RejectionPolicy rejectionPolicy,
+                      final Duration blockTimeout) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive but was " + threads);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive but was " + queueCapacity);
+        }
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.rejectionPolicy = Objects.requireNonNull(rejectionPolicy, "rejectionPolicy");
+        this.blockTimeout = Objects.requireNonNull(blockTimeout, "blockTimeout");
+    }
+
+    /**
+     * Pool for blocking I/O (venue calls, DB writes): many more threads than cores, producers are throttled when
+     * the queue fills up.
+     */
+    public static PoolConfig io() {
+        return new PoolConfig(Math.max(16, CORES * 8), 10_000, RejectionPolicy.CALLER_RUNS);
+    }
+
+    /**
+     * Pool for CPU bound work: one thread per core.
+     */
+    public static PoolConfig cpu() {
+        return new PoolConfig(CORES, 1_000, RejectionPolicy.CALLER_RUNS);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConfig{" +
+                "threads=" + threads +
+                ", queueCapacity=" + queueCapacity +
+                ", rejectionPolicy=" + rejectionPolicy +
+                ", blockTimeout=" + blockTimeout +
+                '}';
+    }
+}
@@ -0,0 +1,111 @@
+package com.backstreetbrogrammer.executor;
+
+/**
+ * Point in time snapshot of a {@link java.util.concurrent.ForkJoinPool}, taken by a {@link ForkJoinPoolMonitor}.
+ */
+public class PoolSaturation {
+
+    private final String name;
+    private final int parallelism;
+    private final int poolSize;
+    private final int activeThreads;
+    private final int runningThreads;
+    private final long queuedSubmissions;
+    private final long queuedTasks;
+    private final long stallNanos;
+    private final boolean stalled;
+
+    public PoolSaturation(final String name,
+                          final int parallelism,
+                          final int poolSize,
+                          final int activeThreads,
+                          final int runningThreads,
+                          final long queuedSubmissions,
+                          final long queuedTasks,
+                          final long stallNanos,
+                          final boolean stalled) {
+        this.name = name;
+        this.parallelism = parallelism;
+        this.poolSize = poolSize;
+        this.activeThreads = activeThreads;
+        this.runningThreads = runningThreads;
+        this.queuedSubmissions = queuedSubmissions;
+        this.queuedTasks = queuedTasks;
+        this.stallNanos = stallNanos;
+        this.stalled = stalled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    /**
+     * Workers not blocked in a join or a managed block. A worker blocked without telling the pool counts as running.
+     */
+    public int getRunningThreads() {
+        return runningThreads;
+    }
+
+    /**
+     * Workers blocked in a join or a managed block.
+     */
+    public int getBlockedWorkers() {
+        return Math.max(0, activeThreads - runningThreads);
+    }
+
+    /**
+     * Spare workers started to compensate for blocked ones.
+     */
+    public int getCompensatingWorkers() {
+        return Math.max(0, poolSize - parallelism);
+    }
+
+    public long getQueuedSubmissions() {
+        return queuedSubmissions;
+    }
+
+    public long getQueuedTasks() {
+        return queuedTasks;
+    }
+
+    /**
+     * How long the monitor's probe task has been waiting for a worker; 0 if it is not waiting.
+     */
+    public long getStallNanos() {
+        return stallNanos;
+    }
+
+    /**
+     * True if the probe has waited longer than the monitor's stall threshold.
+     */
+    public boolean isStalled() {
+        return stalled;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolSaturation{" +
+                "name='" + name + '\'' +
+                ", parallelism=" + parallelism +
+                ", poolSize=" + poolSize +
+                ", activeThreads=" + activeThreads +
+                ", runningThreads=" + runningThreads +
+                ", queuedSubmissions=" + queuedSubmissions +
+                ", queuedTasks=" + queuedTasks +
+                ", stallMillis=" + stallNanos / 1_000_000L +
+                ", stalled=" + stalled +
+                '}';
+    }
+}
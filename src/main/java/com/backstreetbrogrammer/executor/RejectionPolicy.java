@@ -0,0 +1,23 @@
+package com.backstreetbrogrammer.executor;
+
+/**
+ * What a {@link ManagedExecutor} does with a task once its bounded queue is full.
+ */
+public enum RejectionPolicy {
+
+    /**
+     * Fail fast with a {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    ABORT,
+
+    /**
+     * Run the task on the submitting thread, which slows the producer down to the pool's pace.
+     */
+    CALLER_RUNS,
+
+    /**
+     * Block the submitting thread until there is room in the queue (or the offer timeout expires).
+     */
+    BLOCK
+
+}
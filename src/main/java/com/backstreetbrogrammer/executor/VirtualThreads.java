@@ -0,0 +1,73 @@
+package com.backstreetbrogrammer.executor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to {@code Executors.newVirtualThreadPerTaskExecutor()} while the project still compiles for Java 11.
+ * <p>
+ * The factory is looked up reflectively, so virtual threads are used when running on Java 21+ and callers can fall
+ * back to a platform pool otherwise.
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactory();
+    private static final boolean SUPPORTED = probe();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * Creates an executor which starts a new virtual thread for each task.
+     *
+     * @throws UnsupportedOperationException if the running JVM has no (non-preview) virtual threads
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!SUPPORTED) {
+            throw new UnsupportedOperationException(
+                    "Virtual threads require Java 21+, running on " + System.getProperty("java.version"));
+        }
+        return invokeFactory();
+    }
+
+    private static MethodHandle findFactory() {
+        try {
+            return MethodHandles.publicLookup()
+                                .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                                            MethodType.methodType(ExecutorService.class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static boolean probe() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            return false;
+        }
+        try {
+            // on Java 19 / 20 the method exists but throws unless --enable-preview is set
+            invokeFactory().shutdown();
+            return true;
+        } catch (final UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService invokeFactory() {
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+}
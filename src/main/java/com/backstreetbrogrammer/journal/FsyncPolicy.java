@@ -0,0 +1,23 @@
+package com.backstreetbrogrammer.journal;
+
+/**
+ * When a {@link QuoteJournal} forces its mapped segments to disk.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Never explicitly: the OS writes dirty pages back when it wants. Survives a process crash, not a power loss.
+     */
+    NONE,
+
+    /**
+     * In the background every {@code fsyncInterval}: appends never wait for the disk, and at most one interval of
+     * appends is lost on power loss. {@link QuoteJournal#getDurableSequence()} tells what is already on disk.
+     */
+    ASYNC,
+
+    /**
+     * Before every append call returns, so a batch append pays one fsync for the whole batch.
+     */
+    SYNC
+}
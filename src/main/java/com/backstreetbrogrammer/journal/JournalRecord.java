@@ -0,0 +1,88 @@
+package com.backstreetbrogrammer.journal;
+
+import com.backstreetbrogrammer.model.Interner;
+import com.backstreetbrogrammer.model.MarketData;
+import com.backstreetbrogrammer.model.Quote;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Flyweight view of one fixed-width journal record, read in place from the mapped segment (no copy, no allocation).
+ * Server and symbol ids are the journal's own, persisted with it; {@link #toQuote(Quote)} translates them to this
+ * process' {@link Interner} ids.
+ */
+public final class JournalRecord {
+
+    static final int SIZE = 32;
+    static final int SEQUENCE_OFFSET = 0;
+    static final int TIMESTAMP_OFFSET = 8;
+    static final int PRICE_OFFSET = 16;
+    static final int SYMBOL_OFFSET = 24;
+    static final int SERVER_OFFSET = 28;
+
+    private final Interner servers;
+    private final Interner symbols;
+    private ByteBuffer buffer;
+    private int offset;
+    private long sequence;
+
+    JournalRecord(final Interner servers, final Interner symbols) {
+        this.servers = servers;
+        this.symbols = symbols;
+    }
+
+    JournalRecord wrap(final ByteBuffer buffer, final int offset, final long sequence) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.sequence = sequence;
+        return this;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampNanos() {
+        return buffer.getLong(offset + TIMESTAMP_OFFSET);
+    }
+
+    public double getPrice() {
+        return buffer.getDouble(offset + PRICE_OFFSET);
+    }
+
+    public int getSymbolId() {
+        return buffer.getInt(offset + SYMBOL_OFFSET);
+    }
+
+    public int getServerId() {
+        return buffer.getInt(offset + SERVER_OFFSET);
+    }
+
+    public String getSymbol() {
+        return symbols.name(getSymbolId());
+    }
+
+    public String getServer() {
+        return servers.name(getServerId());
+    }
+
+    public Quote toQuote(final Quote into) {
+        return into.set(Interner.servers().intern(getServer()), Interner.symbols().intern(getSymbol()),
+                        getPrice(), getTimestampNanos());
+    }
+
+    public MarketData toMarketData() {
+        return new MarketData(getServer(), getSymbol(), getPrice());
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord{" +
+                "sequence=" + sequence +
+                ", timestampNanos=" + getTimestampNanos() +
+                ", server='" + getServer() + '\'' +
+                ", symbol='" + getSymbol() + '\'' +
+                ", price=" + getPrice() +
+                '}';
+    }
+}
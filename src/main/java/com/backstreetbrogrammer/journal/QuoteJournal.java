@@ -0,0 +1,460 @@
+package com.backstreetbrogrammer.journal;
+
+import com.backstreetbrogrammer.executor.AsyncExecutors;
+import com.backstreetbrogrammer.model.Interner;
+import com.backstreetbrogrammer.model.MarketData;
+import com.backstreetbrogrammer.model.Quote;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, memory-mapped journal of quotes.
+ * <p>
+ * Records are fixed-width ({@value JournalRecord#SIZE} bytes: sequence, timestamp, price, symbol id, server id) and
+ * written straight into segment files of {@code recordsPerSegment} records each, named after their first sequence.
+ * Sequences start at 1 and have no gaps. Server and symbol names are stored once, in two small dictionary files, and
+ * records carry the journal's ids for them.
+ * <p>
+ * Timestamps are epoch nanoseconds on the journal's clock, {@link #nowNanos()}, whichever append they come through,
+ * so that {@link #scan} ranges mean the same across runs and append paths.
+ * <p>
+ * Appends are serialized; replays and scans read the mapped segments in place, concurrently with appends, and see
+ * every record appended before they reach it. Durability follows the {@link FsyncPolicy}. Closing waits for running
+ * replays and scans, then unmaps the segments.
+ */
+public final class QuoteJournal implements AutoCloseable {
+
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+    public static final Duration DEFAULT_FSYNC_INTERVAL = Duration.ofMillis(10L);
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int MAX_RECORDS_PER_SEGMENT = Integer.MAX_VALUE / JournalRecord.SIZE;
+    private static final long EPOCH_OFFSET_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final FsyncPolicy policy;
+    private final Interner servers = new Interner();
+    private final Interner symbols = new Interner();
+    private final NameFile serverNames;
+    private final NameFile symbolNames;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final AtomicLong durableSequence = new AtomicLong();
+    private final Object syncLock = new Object();
+    private final ScheduledFuture<?> fsyncTask;
+    private final ReadWriteLock mapping = new ReentrantReadWriteLock(); // write locked to unmap
+    private boolean unmapped; // guarded by mapping
+
+    // all guarded by this
+    private final List<Segment> unsynced = new ArrayList<>();
+    private Segment current;
+    private long nextSequence;
+    private boolean closed;
+
+    private QuoteJournal(final Path directory,
+                         final int recordsPerSegment,
+                         final FsyncPolicy policy,
+                         final Duration fsyncInterval,
+                         final ScheduledExecutorService scheduler) throws IOException {
+        if (recordsPerSegment < 1 || recordsPerSegment > MAX_RECORDS_PER_SEGMENT) {
+            throw new IllegalArgumentException(String.format("recordsPerSegment must be in [1, %d] but was %d",
+                                                             MAX_RECORDS_PER_SEGMENT, recordsPerSegment));
+        }
+        this.directory = Files.createDirectories(directory);
+        this.recordsPerSegment = recordsPerSegment;
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.serverNames = new NameFile(directory.resolve("servers.names"), servers);
+        this.symbolNames = new NameFile(directory.resolve("symbols.names"), symbols);
+        recover();
+        durableSequence.set(nextSequence - 1L);
+        if (policy == FsyncPolicy.ASYNC) {
+            final long intervalNanos = fsyncInterval.toNanos();
+            fsyncTask = scheduler.scheduleWithFixedDelay(this::sync, intervalNanos, intervalNanos,
+                                                         TimeUnit.NANOSECONDS);
+        } else {
+            fsyncTask = null;
+        }
+    }
+
+    /**
+     * Opens the journal in the directory, creating it if needed, or recovering the records already there.
+     */
+    public static QuoteJournal open(final Path directory,
+                                    final int recordsPerSegment,
+                                    final FsyncPolicy policy,
+                                    final Duration fsyncInterval,
+                                    final ScheduledExecutorService scheduler) throws IOException {
+        return new QuoteJournal(directory, recordsPerSegment, policy, fsyncInterval, scheduler);
+    }
+
+    public static QuoteJournal open(final Path directory) throws IOException {
+        return open(directory, DEFAULT_RECORDS_PER_SEGMENT, FsyncPolicy.ASYNC, DEFAULT_FSYNC_INTERVAL,
+                    AsyncExecutors.shared().scheduler());
+    }
+
+    /**
+     * Epoch nanoseconds, with {@link System#nanoTime()} resolution and monotonic within the process: the clock of every
+     * journal timestamp.
+     */
+    public static long nowNanos() {
+        return System.nanoTime() + EPOCH_OFFSET_NANOS;
+    }
+
+    /**
+     * Appends one record, timestamped by the caller on {@link #nowNanos()}'s clock, and returns its sequence.
+     */
+    public synchronized long append(final String server, final String symbol, final double price,
+                                    final long timestampNanos) {
+        final long sequence = appendLocked(server, symbol, price, timestampNanos);
+        afterAppend();
+        return sequence;
+    }
+
+    /**
+     * Appends a hot-path quote; its ids are translated to the journal's without allocating. Its timestamp must be on
+     * {@link #nowNanos()}'s clock.
+     */
+    public synchronized long append(final Quote quote) {
+        final long sequence = appendLocked(Interner.servers().name(quote.getServerId()),
+                                           Interner.symbols().name(quote.getSymbolId()),
+                                           quote.getPrice(), quote.getTimestampNanos());
+        afterAppend();
+        return sequence;
+    }
+
+    /**
+     * Appends a batch, timestamped {@link #nowNanos()} as {@link MarketData} carries no time, with at most one fsync
+     * for the whole batch. Returns the sequence of the last record.
+     */
+    public synchronized long append(final List<MarketData> batch) {
+        final long timestampNanos = nowNanos();
+        long sequence = nextSequence - 1L;
+        for (final MarketData marketData : batch) {
+            sequence = appendLocked(marketData.getServer(), marketData.getSymbol(), marketData.getPrice(),
+                                    timestampNanos);
+        }
+        afterAppend();
+        return sequence;
+    }
+
+    /**
+     * Visits the records from {@code fromSequence} on, in sequence order, until the end of the journal or until the
+     * visitor returns false. Returns the number of records visited.
+     */
+    public long replay(final long fromSequence, final RecordVisitor visitor) {
+        final Lock lock = lockMapping();
+        try {
+            return replayMapped(fromSequence, visitor);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Visits, in sequence order, the records of the symbol timestamped in {@code [fromTimestamp, toTimestamp)}.
+     * Segments which cannot hold any are skipped using their index. Returns the number of records visited.
+     */
+    public long scan(final String symbol, final long fromTimestamp, final long toTimestamp,
+                     final RecordVisitor visitor) {
+        final int symbolId = symbols.idOf(symbol);
+        if (symbolId < 0) {
+            return 0L;
+        }
+        final List<Segment> candidates = new ArrayList<>();
+        synchronized (this) {
+            for (final Segment segment : segments) {
+                if (segment.mayContain(symbolId, fromTimestamp, toTimestamp)) {
+                    candidates.add(segment);
+                }
+            }
+        }
+
+        final Lock lock = lockMapping();
+        try {
+            return scanMapped(candidates, symbolId, fromTimestamp, toTimestamp, visitor);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces every record appended so far to disk.
+     */
+    public void sync() {
+        final Lock lock = mapping.readLock();
+        lock.lock();
+        try {
+            if (!unmapped) {
+                syncMapped();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public synchronized long getLastSequence() {
+        return nextSequence - 1L;
+    }
+
+    /**
+     * Last sequence known to be on disk (as of the last fsync, whichever the policy).
+     */
+    public long getDurableSequence() {
+        return durableSequence.get();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Rolled segments not forced yet, besides the current one.
+     */
+    synchronized int getUnsyncedSegments() {
+        return unsynced.size();
+    }
+
+    @Override
+    public void close() {
+        if (fsyncTask != null) {
+            fsyncTask.cancel(false);
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (policy != FsyncPolicy.NONE) {
+            sync();
+        }
+        mapping.writeLock().lock();
+        try {
+            unmapped = true;
+            segments.forEach(Segment::unmap);
+        } finally {
+            mapping.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Read lock keeping the segments mapped until released.
+     */
+    private Lock lockMapping() {
+        final Lock lock = mapping.readLock();
+        lock.lock();
+        if (unmapped) {
+            lock.unlock();
+            throw new IllegalStateException("Journal is closed");
+        }
+        return lock;
+    }
+
+    private long replayMapped(final long fromSequence, final RecordVisitor visitor) {
+        final JournalRecord record = new JournalRecord(servers, symbols);
+        long visited = 0L;
+        for (final Segment segment : segments) {
+            if (segment.baseSequence + segment.capacity <= fromSequence) {
+                continue;
+            }
+            for (int i = (int) Math.max(0L, fromSequence - segment.baseSequence); i < segment.capacity; i++) {
+                final long sequence = segment.sequenceAt(i);
+                if (sequence != segment.baseSequence + i) {
+                    return visited; // end of the journal
+                }
+                visited++;
+                if (!visitor.visit(record.wrap(segment.buffer, i * JournalRecord.SIZE, sequence))) {
+                    return visited;
+                }
+            }
+        }
+        return visited;
+    }
+
+    private long scanMapped(final List<Segment> candidates, final int symbolId, final long fromTimestamp,
+                            final long toTimestamp, final RecordVisitor visitor) {
+        final JournalRecord record = new JournalRecord(servers, symbols);
+        long visited = 0L;
+        for (final Segment segment : candidates) {
+            for (int i = 0; i < segment.capacity; i++) {
+                final long sequence = segment.sequenceAt(i);
+                if (sequence != segment.baseSequence + i) {
+                    break;
+                }
+                record.wrap(segment.buffer, i * JournalRecord.SIZE, sequence);
+                final long timestamp = record.getTimestampNanos();
+                if (record.getSymbolId() == symbolId && timestamp >= fromTimestamp && timestamp < toTimestamp) {
+                    visited++;
+                    if (!visitor.visit(record)) {
+                        return visited;
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+
+    private void syncMapped() {
+        synchronized (syncLock) {
+            final List<Segment> toForce;
+            final long upTo;
+            synchronized (this) {
+                toForce = new ArrayList<>(unsynced);
+                unsynced.clear();
+                toForce.add(current);
+                upTo = nextSequence - 1L;
+            }
+            // outside the journal lock: appends go on while the pages are written back
+            toForce.forEach(Segment::force);
+            durableSequence.accumulateAndGet(upTo, Math::max);
+        }
+    }
+
+    private long appendLocked(final String server, final String symbol, final double price,
+                              final long timestampNanos) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        final int serverId = serverNames.intern(server);
+        final int symbolId = symbolNames.intern(symbol);
+        if (current.isFull()) {
+            roll();
+        }
+        final long sequence = nextSequence++;
+        current.write(current.count, timestampNanos, price, symbolId, serverId);
+        return sequence;
+    }
+
+    private void afterAppend() {
+        if (policy == FsyncPolicy.SYNC) {
+            unsynced.forEach(Segment::force);
+            unsynced.clear();
+            current.force();
+            durableSequence.accumulateAndGet(nextSequence - 1L, Math::max);
+        }
+    }
+
+    private void roll() {
+        // whatever the policy, so that an explicit sync() forces every segment written since the last one
+        unsynced.add(current);
+        try {
+            current = Segment.create(segmentPath(nextSequence), nextSequence, recordsPerSegment);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot create journal segment in " + directory, e);
+        }
+        segments.add(current);
+    }
+
+    private void recover() throws IOException {
+        final List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                         .sorted()
+                         .collect(Collectors.toList());
+        }
+        long expectedBase = 1L;
+        for (int i = 0; i < paths.size(); i++) {
+            final Path path = paths.get(i);
+            final String fileName = path.getFileName().toString();
+            final long base = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+            if (base != expectedBase) {
+                throw new IOException(String.format("Journal %s has a gap: expected segment %d but found %s",
+                                                    directory, expectedBase, fileName));
+            }
+            final Segment segment = Segment.recover(path, base, i == paths.size() - 1);
+            segments.add(segment);
+            expectedBase = base + segment.count;
+        }
+        nextSequence = expectedBase;
+        if (segments.isEmpty()) {
+            current = Segment.create(segmentPath(nextSequence), nextSequence, recordsPerSegment);
+            segments.add(current);
+        } else {
+            current = segments.get(segments.size() - 1);
+        }
+    }
+
+    private Path segmentPath(final long baseSequence) {
+        return directory.resolve(String.format("%020d%s", baseSequence, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Dictionary file of an interner: one name per line, the line number being the id. New names are forced to disk
+     * before the first record using them is written.
+     */
+    private static final class NameFile {
+
+        private final Path path;
+        private final Interner interner;
+        private int persisted;
+
+        private NameFile(final Path path, final Interner interner) throws IOException {
+            this.path = path;
+            this.interner = interner;
+            if (Files.exists(path)) {
+                for (final String name : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    interner.intern(name);
+                }
+            }
+            persisted = interner.size();
+        }
+
+        private int intern(final String name) {
+            final int known = interner.idOf(name);
+            if (known >= 0 && known < persisted) {
+                return known;
+            }
+            if (name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("Name must not contain a line break: " + name);
+            }
+            final int id = interner.intern(name);
+            persist(id);
+            return id;
+        }
+
+        private void persist(final int upTo) {
+            final StringBuilder lines = new StringBuilder();
+            for (int id = persisted; id <= upTo; id++) {
+                lines.append(interner.name(id)).append('\n');
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.APPEND)) {
+                final ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Cannot write journal dictionary " + path, e);
+            }
+            persisted = upTo + 1;
+        }
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.backstreetbrogrammer.journal;
+
+/**
+ * Callback of {@link QuoteJournal} replays and scans. The record is a view over the mapped segment which is only
+ * valid during the call: copy what must outlive it.
+ */
+@FunctionalInterface
+public interface RecordVisitor {
+
+    /**
+     * Returns false to stop the replay.
+     */
+    boolean visit(JournalRecord record);
+}
@@ -0,0 +1,152 @@
+package com.backstreetbrogrammer.journal;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * One memory-mapped journal file holding {@code capacity} fixed-width records, the first one with sequence
+ * {@code baseSequence}. A slot is written when its sequence field holds its own sequence: the sequence is stored last,
+ * with release semantics, so a reader which sees it also sees the rest of the record.
+ */
+final class Segment {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+                                                                                ByteOrder.LITTLE_ENDIAN);
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    final Path path;
+    final long baseSequence;
+    final int capacity;
+    final MappedByteBuffer buffer;
+
+    // sparse index for scans, guarded by the journal
+    int count;
+    long minTimestamp = Long.MAX_VALUE;
+    long maxTimestamp = Long.MIN_VALUE;
+    final BitSet symbols = new BitSet();
+
+    private Segment(final Path path, final long baseSequence, final MappedByteBuffer buffer) {
+        this.path = path;
+        this.baseSequence = baseSequence;
+        this.capacity = buffer.capacity() / JournalRecord.SIZE;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static Segment create(final Path path, final long baseSequence, final int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            return new Segment(path, baseSequence,
+                               channel.map(FileChannel.MapMode.READ_WRITE, 0L,
+                                           (long) capacity * JournalRecord.SIZE));
+        }
+    }
+
+    /**
+     * Maps an existing segment and rebuilds its index. A writable segment also gets the slots after its last valid
+     * record cleared, so that a torn write left by a crash cannot resurface once the slot before it is rewritten.
+     */
+    static Segment recover(final Path path, final long baseSequence, final boolean writable) throws IOException {
+        final Segment segment;
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            segment = new Segment(path, baseSequence,
+                                  channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                                              0L, channel.size() - channel.size() % JournalRecord.SIZE));
+        }
+        int index = 0;
+        while (index < segment.capacity && segment.sequenceAt(index) == baseSequence + index) {
+            segment.index(index);
+            index++;
+        }
+        if (writable) {
+            for (int i = index; i < segment.capacity; i++) {
+                if (segment.sequenceAt(i) != 0L) {
+                    LONGS.setRelease(segment.buffer, i * JournalRecord.SIZE, 0L);
+                }
+            }
+        }
+        return segment;
+    }
+
+    void write(final int index, final long timestampNanos, final double price, final int symbolId,
+               final int serverId) {
+        final int offset = index * JournalRecord.SIZE;
+        buffer.putLong(offset + JournalRecord.TIMESTAMP_OFFSET, timestampNanos);
+        buffer.putDouble(offset + JournalRecord.PRICE_OFFSET, price);
+        buffer.putInt(offset + JournalRecord.SYMBOL_OFFSET, symbolId);
+        buffer.putInt(offset + JournalRecord.SERVER_OFFSET, serverId);
+        LONGS.setRelease(buffer, offset + JournalRecord.SEQUENCE_OFFSET, baseSequence + index);
+        index(index);
+    }
+
+    /**
+     * Sequence stored in the slot: {@code baseSequence + index} once written, anything else before.
+     */
+    long sequenceAt(final int index) {
+        return (long) LONGS.getAcquire(buffer, index * JournalRecord.SIZE + JournalRecord.SEQUENCE_OFFSET);
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    boolean mayContain(final int symbolId, final long fromTimestamp, final long toTimestamp) {
+        return count > 0 && symbols.get(symbolId) && minTimestamp < toTimestamp && maxTimestamp >= fromTimestamp;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Releases the mapping now rather than when the buffer is collected; the segment must not be used afterwards.
+     * Left to the GC where the JDK does not allow it.
+     */
+    void unmap() {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+        } catch (final Throwable t) {
+            // still mapped: released by the GC
+        }
+    }
+
+    private static MethodHandle invokeCleaner() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                                .findVirtual(unsafeClass, "invokeCleaner",
+                                             MethodType.methodType(void.class, ByteBuffer.class))
+                                .bindTo(theUnsafe.get(null));
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void index(final int index) {
+        final int offset = index * JournalRecord.SIZE;
+        final long timestamp = buffer.getLong(offset + JournalRecord.TIMESTAMP_OFFSET);
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        symbols.set(buffer.getInt(offset + JournalRecord.SYMBOL_OFFSET));
+        count = index + 1;
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.backstreetbrogrammer.loadtest;
+
+import java.util.List;
+
+/**
+ * The steps of one {@link CapacityTest} run.
+ */
+public class CapacityResult {
+
+    private final String name;
+    private final List<LoadReport> steps;
+    private final double sustainableRate;
+    private final String saturationReason;
+
+    public CapacityResult(final String name,
+                          final List<LoadReport> steps,
+                          final double sustainableRate,
+                          final String saturationReason) {
+        this.name = name;
+        this.steps = List.copyOf(steps);
+        this.sustainableRate = sustainableRate;
+        this.saturationReason = saturationReason;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<LoadReport> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Highest target rate met within the objectives; 0 if even the first step failed them.
+     */
+    public double getSustainableRate() {
+        return sustainableRate;
+    }
+
+    /**
+     * Why the last step was saturated, or null if the maximum rate was sustained.
+     */
+    public String getSaturationReason() {
+        return saturationReason;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder();
+        result.append(String.format("%s: sustainable rate %.0f/s (%s)%n", name, sustainableRate,
+                                    saturationReason == null ? "not saturated" : saturationReason));
+        for (final LoadReport step : steps) {
+            result.append("  ").append(step).append(System.lineSeparator());
+        }
+        return result.toString();
+    }
+}
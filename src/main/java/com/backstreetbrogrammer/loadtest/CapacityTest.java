@@ -0,0 +1,84 @@
+package com.backstreetbrogrammer.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Finds the saturation point of a request strategy: runs it open-loop at geometrically increasing rates, from
+ * {@code startRate} up to {@code maxRate}, until a step misses one of the objectives.
+ * <p>
+ * A step is saturated when more than {@code maxErrorRatio} of its requests failed or were still running twice the
+ * latency objective after the step, when less than 90% of its target rate completed successfully, or when the
+ * corrected p99 latency exceeds {@code p99Objective}.
+ */
+public class CapacityTest {
+
+    static final double MIN_ACHIEVED_RATIO = 0.9D;
+
+    private final double startRate;
+    private final double rateFactor;
+    private final double maxRate;
+    private final Duration stepDuration;
+    private final Duration p99Objective;
+    private final double maxErrorRatio;
+
+    public CapacityTest(final double startRate,
+                        final double rateFactor,
+                        final double maxRate,
+                        final Duration stepDuration,
+                        final Duration p99Objective,
+                        final double maxErrorRatio) {
+        if (!(startRate > 0D) || !(rateFactor > 1D) || maxRate < startRate) {
+            throw new IllegalArgumentException(
+                    String.format("rates must satisfy 0 < startRate <= maxRate and rateFactor > 1 but were %s, %s, %s",
+                                  startRate, maxRate, rateFactor));
+        }
+        this.startRate = startRate;
+        this.rateFactor = rateFactor;
+        this.maxRate = maxRate;
+        this.stepDuration = stepDuration;
+        this.p99Objective = p99Objective;
+        this.maxErrorRatio = maxErrorRatio;
+    }
+
+    public CapacityResult run(final String name, final Supplier<? extends CompletionStage<?>> request) {
+        final List<LoadReport> steps = new ArrayList<>();
+        double sustainableRate = 0D;
+        for (double rate = startRate; rate <= maxRate; rate *= rateFactor) {
+            // requests still running after the objective will not make it
+            final OpenLoopLoadGenerator generator =
+                    new OpenLoopLoadGenerator(rate, stepDuration, p99Objective.multipliedBy(2L));
+            final LoadReport report = generator.run(name, request);
+            steps.add(report);
+            final String reason = saturationReason(report);
+            if (reason != null) {
+                return new CapacityResult(name, steps, sustainableRate, reason);
+            }
+            sustainableRate = rate;
+        }
+        return new CapacityResult(name, steps, sustainableRate, null);
+    }
+
+    /**
+     * Why the step missed the objectives, or null if it met them.
+     */
+    String saturationReason(final LoadReport report) {
+        // a rare stall leaves a request incomplete at any rate: count it as an error, not as saturation
+        final long errors = report.getFailed() + report.getIncomplete();
+        if (errors > maxErrorRatio * report.getSent()) {
+            return String.format("%d of %d requests failed or incomplete", errors, report.getSent());
+        }
+        if (report.getAchievedRate() < MIN_ACHIEVED_RATIO * report.getTargetRate()) {
+            return String.format("achieved %.1f/s of %.0f/s", report.getAchievedRate(), report.getTargetRate());
+        }
+        if (report.getLatency().getP99() > p99Objective.toNanos()) {
+            return String.format("p99 %.1fms over %dms", report.getLatency().getP99() / 1e6D,
+                                 p99Objective.toMillis());
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.backstreetbrogrammer.loadtest;
+
+import com.backstreetbrogrammer.metrics.HistogramSnapshot;
+
+/**
+ * Result of one {@link OpenLoopLoadGenerator} run.
+ */
+public class LoadReport {
+
+    private final String name;
+    private final double targetRate;
+    private final long sent;
+    private final long succeeded;
+    private final long failed;
+    private final long incomplete;
+    private final double achievedRate;
+    private final HistogramSnapshot latency;
+    private final HistogramSnapshot serviceTime;
+
+    public LoadReport(final String name,
+                      final double targetRate,
+                      final long sent,
+                      final long succeeded,
+                      final long failed,
+                      final long incomplete,
+                      final double achievedRate,
+                      final HistogramSnapshot latency,
+                      final HistogramSnapshot serviceTime) {
+        this.name = name;
+        this.targetRate = targetRate;
+        this.sent = sent;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.incomplete = incomplete;
+        this.achievedRate = achievedRate;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Requests per second which were scheduled.
+     */
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Requests still running when the run gave up waiting for them, which were then cancelled.
+     */
+    public long getIncomplete() {
+        return incomplete;
+    }
+
+    /**
+     * Successful requests per second of sending: the run's duration, or longer if the sender fell behind.
+     */
+    public double getAchievedRate() {
+        return achievedRate;
+    }
+
+    /**
+     * Coordinated-omission-corrected latency: from the time each request was scheduled to be sent, so time spent
+     * queued behind a saturated system (or a late sender) counts. Incomplete requests count with the time they had
+     * waited when the run ended.
+     */
+    public HistogramSnapshot getLatency() {
+        return latency;
+    }
+
+    /**
+     * Latency from the time each request was actually sent, as a closed-loop client would measure it.
+     */
+    public HistogramSnapshot getServiceTime() {
+        return serviceTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s @ %.0f/s: achieved %.1f/s, sent=%d, succeeded=%d, failed=%d, incomplete=%d,"
+                                     + " latency=%s, serviceTime=%s",
+                             name, targetRate, achievedRate, sent, succeeded, failed, incomplete, latency,
+                             serviceTime);
+    }
+}
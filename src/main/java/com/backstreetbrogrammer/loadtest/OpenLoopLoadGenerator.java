@@ -0,0 +1,116 @@
+package com.backstreetbrogrammer.loadtest;
+
+import com.backstreetbrogrammer.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop load generator: sends requests at a fixed target rate, whether or not the previous ones have completed,
+ * the way independent users or upstream systems do.
+ * <p>
+ * A closed-loop client waits for each response before sending the next request, so when the system stalls it stops
+ * sending and never measures the requests it would have sent meanwhile (coordinated omission). Here every request
+ * has an intended send time on the rate's schedule, and its latency is measured from that time: if the sender falls
+ * behind (for instance because {@code request} blocks), the delay is charged to the requests which were late.
+ */
+public class OpenLoopLoadGenerator {
+
+    private final double ratePerSecond;
+    private final Duration duration;
+    private final Duration drainTimeout;
+
+    public OpenLoopLoadGenerator(final double ratePerSecond, final Duration duration, final Duration drainTimeout) {
+        if (!(ratePerSecond > 0D)) {
+            throw new IllegalArgumentException("ratePerSecond must be positive but was " + ratePerSecond);
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive but was " + duration);
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+        this.drainTimeout = drainTimeout;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    /**
+     * Sends requests on the calling thread for the run's duration, then waits up to the drain timeout for the
+     * outstanding ones, and cancels those still running. {@code request} should start an asynchronous request and
+     * return at once.
+     */
+    public LoadReport run(final String name, final Supplier<? extends CompletionStage<?>> request) {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+        final LongAdder succeeded = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        // intended send time of each outstanding request; whoever removes an entry counts the request
+        final Map<CompletableFuture<?>, Long> outstanding = new ConcurrentHashMap<>();
+
+        final double intervalNanos = TimeUnit.SECONDS.toNanos(1L) / ratePerSecond;
+        final long requests = Math.max(1L, (long) (duration.toNanos() / intervalNanos));
+        final long start = System.nanoTime();
+        long lastSent = start;
+        for (long i = 0L; i < requests; i++) {
+            final long intended = start + (long) (i * intervalNanos);
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+
+            final long sent = now;
+            lastSent = sent;
+            final CompletableFuture<?> future;
+            try {
+                future = request.get().toCompletableFuture();
+            } catch (final RuntimeException e) {
+                failed.increment();
+                continue;
+            }
+            outstanding.put(future, intended);
+            future.whenComplete((result, throwable) -> {
+                if (outstanding.remove(future) == null) {
+                    return; // already counted as incomplete
+                }
+                final long completed = System.nanoTime();
+                if (throwable == null) {
+                    latency.record(completed - intended);
+                    serviceTime.record(completed - sent);
+                    succeeded.increment();
+                } else {
+                    failed.increment();
+                }
+            });
+        }
+
+        final long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (!outstanding.isEmpty() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1L));
+        }
+        final long end = System.nanoTime();
+        long incomplete = 0L;
+        for (final CompletableFuture<?> future : outstanding.keySet()) {
+            final Long intended = outstanding.remove(future);
+            if (intended != null) {
+                // still running: it has waited at least this long
+                latency.record(end - intended);
+                incomplete++;
+                future.cancel(true);
+            }
+        }
+
+        final double sendingNanos = Math.max(duration.toNanos(), lastSent - start + intervalNanos);
+        return new LoadReport(name, ratePerSecond, requests, succeeded.sum(), failed.sum(), incomplete,
+                              succeeded.sum() * 1e9D / sendingNanos, latency.snapshot(), serviceTime.snapshot());
+    }
+
+}
@@ -0,0 +1,318 @@
+package com.backstreetbrogrammer.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, garbage-free event logger.
+ * <p>
+ * Messages are {@link #register(String) registered} once as templates with {@code {}} placeholders. Logging an
+ * event copies the template id and its arguments (primitives, or references to immutable objects) into a
+ * preallocated ring buffer slot, without formatting, locking or allocating; a background thread formats the events
+ * in order and writes them to the sink, flushing whenever the buffer runs empty.
+ * <p>
+ * The ring buffer is a bounded multi-producer queue: producers claim slots by a CAS on the tail and publish them with
+ * a per-slot sequence number, which the single consumer reads with acquire semantics. When it is full, the
+ * {@link OverflowPolicy} decides whether the event is dropped or the producer waits.
+ * <pre>
+ * private static final int WRITTEN = LOG.register("Written {} rows to {}");
+ * LOG.event(WRITTEN).arg(rows).arg(tableName).commit();
+ * </pre>
+ */
+public class EventLogger implements AutoCloseable {
+
+    public static final int MAX_ARGS = 8;
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+    static final byte OBJECT = 3;
+
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+    private static final long SEALED = Long.MAX_VALUE; // tail once the consumer has stopped
+
+    private final int mask;
+    private final int[] templateIds;
+    private final int[] argCounts;
+    private final long[] words;
+    private final byte[] types;
+    private final Object[] refs;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final OverflowPolicy policy;
+    private final Writer sink;
+    private final Thread consumer;
+    private final ThreadLocal<LogEvent> events = ThreadLocal.withInitial(() -> new LogEvent(this));
+
+    private final List<String[]> templates = new ArrayList<>(); // guarded by itself
+    private volatile String[][] templateTable = new String[0][];
+    private final LongAdder dropped = new LongAdder();
+    private volatile long written;
+    private volatile long writeErrors;
+    private volatile boolean closed;
+
+    public EventLogger(final int capacity, final OverflowPolicy policy, final Writer sink, final String name) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two greater than 1 but was " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.templateIds = new int[capacity];
+        this.argCounts = new int[capacity];
+        this.words = new long[capacity * MAX_ARGS];
+        this.types = new byte[capacity * MAX_ARGS];
+        this.refs = new Object[capacity * MAX_ARGS];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.sink = Objects.requireNonNull(sink, "sink");
+        this.consumer = new Thread(this::consume, name);
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Logger writing to {@code System.out}, dropping events when full, closed by a JVM shutdown hook.
+     */
+    public static EventLogger shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Registers a message template, {@code {}} marking where each argument goes, and returns its id.
+     */
+    public int register(final String template) {
+        final String[] literals = template.split("\\{}", -1);
+        if (literals.length - 1 > MAX_ARGS) {
+            throw new IllegalArgumentException(
+                    String.format("at most %d arguments but template has %d: %s", MAX_ARGS, literals.length - 1,
+                                  template));
+        }
+        synchronized (templates) {
+            templates.add(literals);
+            templateTable = templates.toArray(new String[0][]);
+            return templates.size() - 1;
+        }
+    }
+
+    /**
+     * Starts an event of the given template; add its arguments then {@link LogEvent#commit()} it. Not reentrant:
+     * arguments must not log themselves.
+     */
+    public LogEvent event(final int template) {
+        if (template < 0 || template >= templateTable.length) {
+            throw new IllegalArgumentException("Unknown template: " + template);
+        }
+        return events.get().begin(template);
+    }
+
+    public void log(final int template) {
+        event(template).commit();
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Events formatted and written to the sink.
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    public long getWriteErrors() {
+        return writeErrors;
+    }
+
+    /**
+     * Writes out the events already logged, then stops the consumer. Events logged afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void publish(final LogEvent event) {
+        final long sequence = claim();
+        if (sequence < 0L) {
+            return;
+        }
+        final int slot = (int) sequence & mask;
+        final int base = slot * MAX_ARGS;
+        final int args = event.args;
+        templateIds[slot] = event.template;
+        argCounts[slot] = args;
+        System.arraycopy(event.words, 0, words, base, args);
+        System.arraycopy(event.types, 0, types, base, args);
+        System.arraycopy(event.refs, 0, refs, base, args);
+        sequences.setRelease(slot, sequence + 1L);
+    }
+
+    /**
+     * Claims the next slot, returning its sequence, or -1 if the event is dropped.
+     */
+    private long claim() {
+        int spins = 0;
+        while (true) {
+            if (closed) {
+                dropped.increment();
+                return -1L;
+            }
+            final long sequence = tail.get();
+            if (sequence == SEALED) {
+                dropped.increment();
+                return -1L;
+            }
+            final long available = sequences.getAcquire((int) sequence & mask);
+            if (available == sequence) {
+                if (tail.compareAndSet(sequence, sequence + 1L)) {
+                    return sequence;
+                }
+            } else if (available < sequence) {
+                // full: the slot still holds the event of the previous lap
+                if (policy == OverflowPolicy.DROP) {
+                    dropped.increment();
+                    return -1L;
+                }
+                backOff(++spins);
+            }
+            // otherwise another producer claimed this sequence first: retry with the new tail
+        }
+    }
+
+    private void consume() {
+        final StringBuilder line = new StringBuilder(256);
+        char[] chars = new char[256];
+        final String lineSeparator = System.lineSeparator();
+        long head = 0L;
+        int idle = 0;
+        while (true) {
+            final int slot = (int) head & mask;
+            if (sequences.getAcquire(slot) == head + 1L) {
+                try {
+                    format(slot, line);
+                } catch (final RuntimeException e) {
+                    // a failing toString() must not stop the logger
+                    line.setLength(0);
+                    line.append("Failed to format event: ").append(e);
+                }
+                line.append(lineSeparator);
+                final int length = line.length();
+                if (chars.length < length) {
+                    chars = new char[Math.max(length, chars.length * 2)];
+                }
+                line.getChars(0, length, chars, 0);
+                write(chars, length);
+                Arrays.fill(refs, slot * MAX_ARGS, slot * MAX_ARGS + argCounts[slot], null);
+                sequences.setRelease(slot, head + mask + 1L);
+                head++;
+                written = head;
+                idle = 0;
+                continue;
+            }
+            if (idle == 0) {
+                flush();
+            }
+            // sealing the tail stops a producer which saw the logger open from claiming a slot nobody will read
+            if (closed && tail.compareAndSet(head, SEALED)) {
+                flush();
+                return;
+            }
+            // an event claimed but not yet published is only a copy away
+            if (tail.get() == head) {
+                LockSupport.parkNanos(Math.min(IDLE_PARK_NANOS, 1_000L << Math.min(idle, 10)));
+            } else {
+                Thread.onSpinWait();
+            }
+            idle++;
+        }
+    }
+
+    private void format(final int slot, final StringBuilder line) {
+        line.setLength(0);
+        final String[] literals = templateTable[templateIds[slot]];
+        final int base = slot * MAX_ARGS;
+        final int args = argCounts[slot];
+        line.append(literals[0]);
+        for (int i = 1; i < literals.length; i++) {
+            if (i <= args) {
+                final int arg = base + i - 1;
+                switch (types[arg]) {
+                    case LONG:
+                        line.append(words[arg]);
+                        break;
+                    case DOUBLE:
+                        line.append(Double.longBitsToDouble(words[arg]));
+                        break;
+                    default:
+                        line.append(refs[arg]);
+                }
+            } else {
+                line.append("{}"); // missing argument
+            }
+            line.append(literals[i]);
+        }
+    }
+
+    private void write(final char[] chars, final int length) {
+        try {
+            sink.write(chars, 0, length);
+        } catch (final IOException e) {
+            writeErrors++;
+        }
+    }
+
+    private void flush() {
+        try {
+            sink.flush();
+        } catch (final IOException e) {
+            writeErrors++;
+        }
+    }
+
+    private static void backOff(final int spins) {
+        if (spins < 100) {
+            Thread.onSpinWait();
+        } else if (spins < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(10_000L);
+        }
+    }
+
+    private static final class Shared {
+
+        private static final EventLogger INSTANCE = new EventLogger(
+                DEFAULT_CAPACITY, OverflowPolicy.DROP,
+                new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()), 1 << 16),
+                "event-logger");
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::close, "event-logger-shutdown"));
+        }
+    }
+
+}
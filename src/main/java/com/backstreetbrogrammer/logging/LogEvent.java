@@ -0,0 +1,68 @@
+package com.backstreetbrogrammer.logging;
+
+/**
+ * Arguments of the event being logged by the current thread; obtained from {@link EventLogger#event(int)}, reused for
+ * every event of the thread.
+ * <p>
+ * Object arguments are formatted later, on the logger's thread, so they must not change once logged: pass strings,
+ * immutable values, or their primitive fields.
+ */
+public final class LogEvent {
+
+    final long[] words = new long[EventLogger.MAX_ARGS];
+    final byte[] types = new byte[EventLogger.MAX_ARGS];
+    final Object[] refs = new Object[EventLogger.MAX_ARGS];
+    int template;
+    int args;
+
+    private final EventLogger logger;
+
+    LogEvent(final EventLogger logger) {
+        this.logger = logger;
+    }
+
+    public LogEvent arg(final long value) {
+        if (args < EventLogger.MAX_ARGS) {
+            types[args] = EventLogger.LONG;
+            words[args++] = value;
+        }
+        return this;
+    }
+
+    public LogEvent arg(final double value) {
+        if (args < EventLogger.MAX_ARGS) {
+            types[args] = EventLogger.DOUBLE;
+            words[args++] = Double.doubleToRawLongBits(value);
+        }
+        return this;
+    }
+
+    public LogEvent arg(final Object value) {
+        if (args < EventLogger.MAX_ARGS) {
+            types[args] = EventLogger.OBJECT;
+            refs[args++] = value;
+        }
+        return this;
+    }
+
+    /**
+     * Copies the event into the ring buffer.
+     */
+    public void commit() {
+        logger.publish(this);
+        for (int i = 0; i < args; i++) {
+            refs[i] = null;
+        }
+        args = 0;
+    }
+
+    LogEvent begin(final int template) {
+        for (int i = 0; i < args; i++) {
+            refs[i] = null; // left over by an event never committed
+        }
+        this.template = template;
+        this.args = 0;
+        return this;
+    }
+
+}
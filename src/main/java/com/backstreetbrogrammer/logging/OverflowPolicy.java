@@ -0,0 +1,17 @@
+package com.backstreetbrogrammer.logging;
+
+/**
+ * What an {@link EventLogger} does with an event when its ring buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Drops the event and counts it: logging never slows the caller down.
+     */
+    DROP,
+
+    /**
+     * Waits for the consumer to free a slot: no event is lost, but a slow sink slows the callers down.
+     */
+    BLOCK
+}
@@ -0,0 +1,161 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.concurrent.Futures;
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fans out a quote request to all the registered sources on the given executor and reduces the answers to the
+ * best (lowest) price.
+ */
+public class BestPriceConsolidator {
+
+    private final Executor executor;
+    private final List<MarketDataSource> sources = new CopyOnWriteArrayList<>();
+
+    public BestPriceConsolidator(final Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    public BestPriceConsolidator register(final MarketDataSource source) {
+        sources.add(Objects.requireNonNull(source, "source"));
+        return this;
+    }
+
+    public boolean unregister(final MarketDataSource source) {
+        return sources.remove(source);
+    }
+
+    public List<MarketDataSource> getSources() {
+        return List.copyOf(sources);
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public List<CompletableFuture<MarketData>> fetchAll(final String symbol) {
+        final List<CompletableFuture<MarketData>> futures = new ArrayList<>(sources.size());
+        for (final MarketDataSource source : sources) {
+            futures.add(source.fetch(symbol, executor));
+        }
+        return futures;
+    }
+
+    /**
+     * Fans out to all the sources and returns a tracker which reduces the quotes in completion order.
+     */
+    public BestPriceTracker track(final String symbol) {
+        return BestPriceTracker.track(fetchAll(symbol));
+    }
+
+    /**
+     * First quote to arrive from any source; the slower requests are cancelled.
+     */
+    public CompletableFuture<MarketData> fastest(final String symbol) {
+        return Futures.firstOf(fetchAll(symbol));
+    }
+
+    /**
+     * Best price among all the sources which answered successfully; fails only if none did.
+     */
+    public CompletableFuture<MarketData> bestPrice(final String symbol) {
+        if (sources.isEmpty()) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("No market data sources registered"));
+        }
+        return track(symbol).result();
+    }
+
+    /**
+     * Returns the best price among the quotes received once {@code quorum} sources have answered, or when the
+     * deadline expires, whichever comes first. The result never fails: sources which did not answer in time are
+     * reported as missing and their requests are cancelled.
+     */
+    public CompletableFuture<QuorumResult> bestPrice(final String symbol, final int quorum, final Duration deadline) {
+        final List<MarketDataSource> snapshot = getSources();
+        if (quorum < 1 || quorum > snapshot.size()) {
+            throw new IllegalArgumentException(
+                    String.format("quorum must be in [1, %d] but was %d", snapshot.size(), quorum));
+        }
+        Objects.requireNonNull(deadline, "deadline");
+
+        final int n = snapshot.size();
+        final AtomicReferenceArray<MarketData> quotes = new AtomicReferenceArray<>(n);
+        final AtomicReferenceArray<Throwable> failures = new AtomicReferenceArray<>(n);
+        final AtomicInteger answered = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicBoolean cut = new AtomicBoolean();
+        final CompletableFuture<QuorumResult> result = new CompletableFuture<>();
+        final List<CompletableFuture<MarketData>> futures = new ArrayList<>(n);
+
+        final Runnable finish = () -> {
+            if (cut.compareAndSet(false, true)) {
+                result.complete(toQuorumResult(snapshot, quotes, failures, answered.get() >= quorum));
+                futures.forEach(future -> future.cancel(true));
+            }
+        };
+
+        for (final MarketDataSource source : snapshot) {
+            futures.add(source.fetch(symbol, executor));
+        }
+        for (int i = 0; i < n; i++) {
+            final int index = i;
+            futures.get(i).whenComplete((marketData, throwable) -> {
+                if (throwable == null) {
+                    quotes.set(index, marketData);
+                    if (answered.incrementAndGet() >= quorum) {
+                        finish.run();
+                    }
+                } else {
+                    failures.set(index, throwable);
+                }
+                if (completed.incrementAndGet() == n) {
+                    finish.run();
+                }
+            });
+        }
+
+        if (!result.isDone()) {
+            CompletableFuture.delayedExecutor(deadline.toNanos(), TimeUnit.NANOSECONDS).execute(finish);
+        }
+        return result;
+    }
+
+    private static QuorumResult toQuorumResult(final List<MarketDataSource> sources,
+                                               final AtomicReferenceArray<MarketData> quotes,
+                                               final AtomicReferenceArray<Throwable> failures,
+                                               final boolean quorumReached) {
+        MarketData best = null;
+        final List<String> responded = new ArrayList<>();
+        final List<String> failed = new ArrayList<>();
+        final List<String> missing = new ArrayList<>();
+        for (int i = 0; i < sources.size(); i++) {
+            final String name = sources.get(i).getName();
+            final MarketData marketData = quotes.get(i);
+            if (marketData != null) {
+                responded.add(name);
+                if (best == null || marketData.getPrice() < best.getPrice()) {
+                    best = marketData;
+                }
+            } else if (failures.get(i) != null) {
+                failed.add(name);
+            } else {
+                missing.add(name);
+            }
+        }
+        return new QuorumResult(best, responded, failed, missing, quorumReached);
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a running best (lowest) price as quotes complete, in completion order rather than submission order.
+ * <p>
+ * Subscribers are notified of improvements in strictly decreasing price order, outside any lock: one thread at a
+ * time delivers the latest best to every subscriber, while the others return at once, so a slow subscriber does not
+ * hold up the venue callbacks. Improvements landing during a delivery are merged into the next one, and a throwing
+ * subscriber is ignored. The final result completes as soon as the last quote lands, with the best successful quote,
+ * and only fails if every quote failed.
+ */
+public class BestPriceTracker {
+
+    private final AtomicReference<MarketData> best = new AtomicReference<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicInteger remaining;
+    private final CompletableFuture<MarketData> result = new CompletableFuture<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final Object publishLock = new Object();
+    private boolean publishing;   // guarded by publishLock
+    private boolean publishAgain; // guarded by publishLock
+
+    private BestPriceTracker(final int expected) {
+        this.remaining = new AtomicInteger(expected);
+    }
+
+    public static BestPriceTracker track(final Collection<? extends CompletionStage<MarketData>> quotes) {
+        final BestPriceTracker tracker = new BestPriceTracker(quotes.size());
+        if (quotes.isEmpty()) {
+            tracker.result.completeExceptionally(new IllegalStateException("No quotes to track"));
+            return tracker;
+        }
+        for (final CompletionStage<MarketData> quote : quotes) {
+            quote.whenComplete(tracker::onQuote);
+        }
+        return tracker;
+    }
+
+    /**
+     * Registers a listener for price improvements. If a best price is already known, it is delivered immediately.
+     */
+    public BestPriceTracker subscribe(final Consumer<? super MarketData> listener) {
+        subscribers.add(new Subscriber(listener));
+        publish();
+        return this;
+    }
+
+    public Optional<MarketData> current() {
+        return Optional.ofNullable(best.get());
+    }
+
+    public int getRemaining() {
+        return remaining.get();
+    }
+
+    public CompletableFuture<MarketData> result() {
+        return result;
+    }
+
+    private void onQuote(final MarketData marketData, final Throwable throwable) {
+        if (throwable == null) {
+            if (improve(marketData)) {
+                publish();
+            }
+        } else {
+            failure.compareAndSet(null, throwable);
+        }
+
+        if (remaining.decrementAndGet() == 0) {
+            final MarketData bestMarketData = best.get();
+            if (bestMarketData != null) {
+                result.complete(bestMarketData);
+            } else {
+                final Throwable cause = failure.get();
+                result.completeExceptionally(cause instanceof CompletionException ? cause
+                                                     : new CompletionException(cause));
+            }
+        }
+    }
+
+    private boolean improve(final MarketData candidate) {
+        MarketData current;
+        do {
+            current = best.get();
+            if (current != null && current.getPrice() <= candidate.getPrice()) {
+                return false;
+            }
+        } while (!best.compareAndSet(current, candidate));
+        return true;
+    }
+
+    private void publish() {
+        // a publish while another thread delivers only asks it for another round, so listeners run one at a time
+        synchronized (publishLock) {
+            if (publishing) {
+                publishAgain = true;
+                return;
+            }
+            publishing = true;
+        }
+        while (true) {
+            // only ever deliver the latest best: it can only have gone down since the last round
+            final MarketData current = best.get();
+            if (current != null) {
+                for (final Subscriber subscriber : subscribers) {
+                    subscriber.deliver(current);
+                }
+            }
+            synchronized (publishLock) {
+                if (!publishAgain) {
+                    publishing = false;
+                    return;
+                }
+                publishAgain = false;
+            }
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final Consumer<? super MarketData> listener;
+        private MarketData lastDelivered; // only used by the publishing thread
+
+        private Subscriber(final Consumer<? super MarketData> listener) {
+            this.listener = listener;
+        }
+
+        private void deliver(final MarketData marketData) {
+            if (marketData == lastDelivered) {
+                return;
+            }
+            lastDelivered = marketData;
+            try {
+                listener.accept(marketData);
+            } catch (final RuntimeException e) {
+                // a failing listener must neither stop the others nor the result
+            }
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.Quote;
+
+/**
+ * Primitive best (lowest) price reduction: quotes are compared with a plain {@code <} on their {@code double}
+ * price, with no {@link java.util.Comparator} and no boxing, and the best one is copied into primitive fields, so
+ * offering a quote never allocates. Reusable after {@link #reset()}.
+ * <p>
+ * Not thread safe, like {@link Quote}: reduce on one thread, e.g. in the continuation of an {@code allOf}, or guard
+ * it externally (an uncontended lock costs about as much as the reduction itself).
+ */
+public class BestQuote {
+
+    private int serverId = -1;
+    private int symbolId = -1;
+    private double price = Double.POSITIVE_INFINITY;
+    private long timestampNanos;
+    private int offers;
+
+    /**
+     * Returns true if the quote is the new best price.
+     */
+    public boolean offer(final Quote quote) {
+        return offer(quote.getServerId(), quote.getSymbolId(), quote.getPrice(), quote.getTimestampNanos());
+    }
+
+    public boolean offer(final int serverId, final int symbolId, final double price,
+                         final long timestampNanos) {
+        offers++;
+        if (price < this.price) {
+            this.serverId = serverId;
+            this.symbolId = symbolId;
+            this.price = price;
+            this.timestampNanos = timestampNanos;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return serverId < 0;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public int getServerId() {
+        return serverId;
+    }
+
+    public int getOffers() {
+        return offers;
+    }
+
+    /**
+     * Copies the best quote into {@code into}; returns false, leaving it untouched, if nothing was offered.
+     */
+    public boolean copyTo(final Quote into) {
+        if (serverId < 0) {
+            return false;
+        }
+        into.set(serverId, symbolId, price, timestampNanos);
+        return true;
+    }
+
+    public void reset() {
+        serverId = -1;
+        symbolId = -1;
+        price = Double.POSITIVE_INFINITY;
+        timestampNanos = 0L;
+        offers = 0;
+    }
+
+    /**
+     * Index of the lowest of the first {@code count} prices, or -1 if {@code count} is 0.
+     */
+    public static int indexOfBest(final double[] prices, final int count) {
+        int best = -1;
+        double bestPrice = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            if (prices[i] < bestPrice) {
+                bestPrice = prices[i];
+                best = i;
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,357 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.metrics.HistogramSnapshot;
+import com.backstreetbrogrammer.metrics.LatencyHistogram;
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Adaptive hedged best-price fetcher: instead of asking every venue every time, asks only the {@code fanOut}
+ * historically fastest ones and hedges to the next fastest venue when a request outlives its venue's p95 latency or
+ * fails.
+ * <p>
+ * Venues are ranked by their median latency, measured online per venue over a sliding window of about
+ * {@value #WINDOW} requests. Venues with fewer than {@value #MIN_SAMPLES} samples are tried first so that every
+ * venue gets measured, and use {@code initialHedgeDelay} as their hedge delay. A request cancelled because the result
+ * was already known only gives a lower bound of its venue's latency, so its elapsed time is recorded only when above
+ * the venue's median: a venue which always loses still sees its latency grow, but is never made to look faster.
+ * <p>
+ * Hedges are paid from a token bucket credited {@code maxHedgeRatio} per primary request, so the hedge traffic never
+ * exceeds {@code maxHedgeRatio} times the primary traffic.
+ */
+public class HedgedFetcher {
+
+    static final double HEDGE_QUANTILE = 0.95D;
+    static final int MIN_SAMPLES = 16;
+    static final int WINDOW = 1024;
+    private static final long TOKEN = 1_000L;
+    private static final long MAX_HEDGE_BURST = 10L * TOKEN;
+
+    private final List<Venue> venues;
+    private final int fanOut;
+    private final long initialHedgeDelayNanos;
+    private final long tokensPerPrimary;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong hedgeTokens = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder primaries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgesDenied = new LongAdder();
+
+    public HedgedFetcher(final List<? extends MarketDataSource> sources,
+                         final int fanOut,
+                         final Duration initialHedgeDelay,
+                         final double maxHedgeRatio,
+                         final Executor executor,
+                         final ScheduledExecutorService scheduler) {
+        if (fanOut < 1 || fanOut > sources.size()) {
+            throw new IllegalArgumentException(
+                    String.format("fanOut must be in [1, %d] but was %d", sources.size(), fanOut));
+        }
+        if (maxHedgeRatio < 0D) {
+            throw new IllegalArgumentException("maxHedgeRatio must not be negative but was " + maxHedgeRatio);
+        }
+        this.venues = sources.stream().map(Venue::new).collect(Collectors.toUnmodifiableList());
+        this.fanOut = fanOut;
+        this.initialHedgeDelayNanos = initialHedgeDelay.toNanos();
+        this.tokensPerPrimary = Math.round(maxHedgeRatio * TOKEN);
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+    }
+
+    /**
+     * Best price among the first {@code fanOut} quotes received; with fewer answers once every request sent has
+     * completed, the best of those, and fails only if none answered.
+     */
+    public CompletableFuture<MarketData> bestPrice(final String symbol) {
+        requests.increment();
+        primaries.add(fanOut);
+        hedgeTokens.accumulateAndGet(tokensPerPrimary * fanOut, (tokens, credit) -> Math.min(MAX_HEDGE_BURST,
+                                                                                              tokens + credit));
+        final Request request = new Request(symbol, ranking());
+        request.start();
+        return request.result;
+    }
+
+    /**
+     * Venue names, fastest first, as the next request would use them.
+     */
+    public List<String> getRanking() {
+        return ranking().stream().map(venue -> venue.source.getName()).collect(Collectors.toList());
+    }
+
+    public Map<String, HistogramSnapshot> getVenueLatencies() {
+        final Map<String, HistogramSnapshot> latencies = new LinkedHashMap<>();
+        for (final Venue venue : venues) {
+            latencies.put(venue.source.getName(), venue.window().snapshot());
+        }
+        return latencies;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getPrimaries() {
+        return primaries.sum();
+    }
+
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    public long getHedgesDenied() {
+        return hedgesDenied.sum();
+    }
+
+    private List<Venue> ranking() {
+        final List<Venue> ranked = new ArrayList<>(venues);
+        ranked.sort(Comparator.comparingLong(Venue::rankingLatency).thenComparingLong(Venue::samples));
+        return ranked;
+    }
+
+    private boolean tryAcquireHedge() {
+        long tokens;
+        do {
+            tokens = hedgeTokens.get();
+            if (tokens < TOKEN) {
+                return false;
+            }
+        } while (!hedgeTokens.compareAndSet(tokens, tokens - TOKEN));
+        return true;
+    }
+
+    private long hedgeDelayNanos(final Venue venue) {
+        return venue.isMeasured() ? venue.p95 : initialHedgeDelayNanos;
+    }
+
+    private static final class Venue {
+
+        private final MarketDataSource source;
+        private final AtomicLong samples = new AtomicLong();
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram previous;
+        private volatile long p50;
+        private volatile long p95;
+
+        private Venue(final MarketDataSource source) {
+            this.source = Objects.requireNonNull(source, "source");
+        }
+
+        private void record(final long nanos) {
+            final LatencyHistogram histogram = current;
+            histogram.record(nanos);
+            final long n = samples.incrementAndGet();
+            if (n % WINDOW == 0L) {
+                previous = histogram;
+                current = new LatencyHistogram();
+            }
+            if (n % MIN_SAMPLES == 0L) {
+                final LatencyHistogram window = window();
+                p50 = window.percentile(0.5D);
+                p95 = window.percentile(HEDGE_QUANTILE);
+            }
+        }
+
+        /**
+         * The current window once it holds half a window of samples, the previous full one until then.
+         */
+        private LatencyHistogram window() {
+            final LatencyHistogram histogram = current;
+            final LatencyHistogram last = previous;
+            return last == null || histogram.getCount() >= WINDOW / 2 ? histogram : last;
+        }
+
+        private boolean isMeasured() {
+            return samples.get() >= MIN_SAMPLES;
+        }
+
+        private long rankingLatency() {
+            return isMeasured() ? p50 : 0L;
+        }
+
+        private long samples() {
+            return samples.get();
+        }
+    }
+
+    private static final class Attempt {
+
+        private final Venue venue;
+        private final long startNanos = System.nanoTime();
+        private volatile CompletableFuture<MarketData> future;
+        private volatile ScheduledFuture<?> hedgeTimer;
+
+        private Attempt(final Venue venue) {
+            this.venue = venue;
+        }
+
+        private void cancel() {
+            final ScheduledFuture<?> timer = hedgeTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            future.cancel(true);
+        }
+    }
+
+    private final class Request {
+
+        private final String symbol;
+        private final List<Venue> ranked;
+        private final CompletableFuture<MarketData> result = new CompletableFuture<>();
+
+        // all guarded by this
+        private final List<Attempt> attempts = new ArrayList<>();
+        private int next;
+        private int pending;
+        private int answered;
+        private MarketData best;
+        private Throwable lastFailure;
+        private boolean done;
+
+        private Request(final String symbol, final List<Venue> ranked) {
+            this.symbol = symbol;
+            this.ranked = ranked;
+        }
+
+        private void start() {
+            synchronized (this) {
+                next = fanOut;
+                pending = fanOut;
+            }
+            result.whenComplete((marketData, throwable) -> finish());
+            for (int i = 0; i < fanOut; i++) {
+                launch(ranked.get(i));
+            }
+        }
+
+        private void launch(final Venue venue) {
+            final Attempt attempt = new Attempt(venue);
+            CompletableFuture<MarketData> future;
+            try {
+                future = venue.source.fetch(symbol, executor);
+            } catch (final RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            attempt.future = future;
+            final boolean finished;
+            synchronized (this) {
+                attempts.add(attempt);
+                finished = done;
+            }
+            future.whenComplete((marketData, throwable) -> onComplete(attempt, marketData, throwable));
+            if (finished) {
+                future.cancel(true);
+            } else if (!future.isDone()) {
+                attempt.hedgeTimer = scheduler.schedule(() -> onSlow(attempt), hedgeDelayNanos(venue),
+                                                        TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void onSlow(final Attempt attempt) {
+            if (!attempt.future.isDone()) {
+                hedge();
+            }
+        }
+
+        private void hedge() {
+            final Venue venue;
+            synchronized (this) {
+                if (done || next >= ranked.size()) {
+                    return;
+                }
+                if (!tryAcquireHedge()) {
+                    hedgesDenied.increment();
+                    return;
+                }
+                venue = ranked.get(next++);
+                pending++;
+            }
+            hedges.increment();
+            launch(venue);
+        }
+
+        private void onComplete(final Attempt attempt, final MarketData marketData, final Throwable throwable) {
+            final ScheduledFuture<?> timer = attempt.hedgeTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+            final long elapsed = System.nanoTime() - attempt.startNanos;
+            if (cause == null || cause instanceof CancellationException && elapsed > attempt.venue.p50) {
+                attempt.venue.record(elapsed);
+            }
+
+            boolean failed = false;
+            synchronized (this) {
+                pending--;
+                if (done) {
+                    return;
+                }
+                if (cause == null) {
+                    answered++;
+                    if (best == null || marketData.getPrice() < best.getPrice()) {
+                        best = marketData;
+                    }
+                } else {
+                    lastFailure = cause;
+                    failed = true;
+                }
+            }
+            if (failed) {
+                hedge();
+            }
+            final boolean last;
+            synchronized (this) {
+                last = answered >= fanOut || pending == 0;
+            }
+            if (last) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            final List<Attempt> outstanding;
+            final MarketData quote;
+            final Throwable failure;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                outstanding = new ArrayList<>(attempts);
+                quote = best;
+                failure = lastFailure;
+            }
+            if (quote != null) {
+                result.complete(quote);
+            } else {
+                result.completeExceptionally(failure != null
+                                                     ? failure
+                                                     : new IllegalStateException("No venue answered for " + symbol));
+            }
+            outstanding.forEach(Attempt::cancel);
+        }
+    }
+
+}
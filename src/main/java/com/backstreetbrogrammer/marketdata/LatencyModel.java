@@ -0,0 +1,106 @@
+package com.backstreetbrogrammer.marketdata;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Distribution of a simulated venue's response times.
+ * <p>
+ * Real venues are not uniform: most answers are fast with a long log-normal tail, some venues have a fast and a
+ * slow path (cache hit or miss, primary or backup), and every now and then one stalls for seconds (GC pause, failover).
+ * The models compose, e.g. {@code bimodal(logNormal(5ms, 0.3), logNormal(50ms, 0.3), 0.1).withStalls(0.001, 2s)}.
+ */
+public final class LatencyModel {
+
+    private final Sampler sampler;
+    private final String description;
+
+    private LatencyModel(final Sampler sampler, final String description) {
+        this.sampler = sampler;
+        this.description = description;
+    }
+
+    public static LatencyModel fixed(final Duration latency) {
+        final long nanos = requireNonNegative(latency);
+        return new LatencyModel(random -> nanos, "fixed(" + latency.toMillis() + "ms)");
+    }
+
+    /**
+     * Uniform in {@code [min, max)}.
+     */
+    public static LatencyModel uniform(final Duration min, final Duration max) {
+        final long minNanos = requireNonNegative(min);
+        final long rangeNanos = max.toNanos() - minNanos;
+        if (rangeNanos <= 0L) {
+            throw new IllegalArgumentException("latency range must be non-negative and non-empty");
+        }
+        return new LatencyModel(random -> minNanos + (long) (random.nextDouble() * rangeNanos),
+                                "uniform[" + min.toMillis() + "ms, " + max.toMillis() + "ms)");
+    }
+
+    /**
+     * Log-normal with the given median: {@code median * exp(sigma * Z)}. A {@code sigma} of 0.5 puts the p99 at about
+     * 3.2 times the median, 1.0 at about 10 times.
+     */
+    public static LatencyModel logNormal(final Duration median, final double sigma) {
+        final long medianNanos = requireNonNegative(median);
+        if (sigma < 0D) {
+            throw new IllegalArgumentException("sigma must not be negative but was " + sigma);
+        }
+        return new LatencyModel(random -> (long) (medianNanos * Math.exp(sigma * random.nextGaussian())),
+                                "logNormal(" + median.toMillis() + "ms, " + sigma + ")");
+    }
+
+    /**
+     * The slow model with probability {@code slowProbability}, the fast one otherwise.
+     */
+    public static LatencyModel bimodal(final LatencyModel fast, final LatencyModel slow,
+                                       final double slowProbability) {
+        requireProbability(slowProbability);
+        return new LatencyModel(random -> random.nextDouble() < slowProbability
+                                          ? slow.nextLatencyNanos(random)
+                                          : fast.nextLatencyNanos(random),
+                                "bimodal(" + fast + ", " + slow + ", " + slowProbability + ")");
+    }
+
+    /**
+     * This model, plus a stall of {@code stall} with probability {@code stallProbability}.
+     */
+    public LatencyModel withStalls(final double stallProbability, final Duration stall) {
+        requireProbability(stallProbability);
+        final long stallNanos = requireNonNegative(stall);
+        return new LatencyModel(random -> {
+            final long latency = nextLatencyNanos(random);
+            return random.nextDouble() < stallProbability ? latency + stallNanos : latency;
+        }, this + ".withStalls(" + stallProbability + ", " + stall.toMillis() + "ms)");
+    }
+
+    public long nextLatencyNanos(final Random random) {
+        return sampler.next(random);
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    private static long requireNonNegative(final Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("latency must not be negative but was " + duration);
+        }
+        return duration.toNanos();
+    }
+
+    private static void requireProbability(final double probability) {
+        if (!(probability >= 0D && probability <= 1D)) {
+            throw new IllegalArgumentException("probability must be in [0, 1] but was " + probability);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Sampler {
+
+        long next(Random random);
+    }
+
+}
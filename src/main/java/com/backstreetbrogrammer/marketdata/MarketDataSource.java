@@ -0,0 +1,20 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A market data provider (venue) which can be queried asynchronously for a quote.
+ */
+public interface MarketDataSource {
+
+    String getName();
+
+    /**
+     * Fetches the quote for the given symbol, running any blocking work on the given executor.
+     */
+    CompletableFuture<MarketData> fetch(String symbol, Executor executor);
+
+}
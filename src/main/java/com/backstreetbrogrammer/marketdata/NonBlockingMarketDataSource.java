@@ -0,0 +1,105 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Simulates an asynchronous (non-blocking) venue client: no thread waits for the quote, a timer completes the
+ * future once the simulated latency has elapsed.
+ * <p>
+ * Tens of thousands of in-flight quotes only cost a timer entry each, which makes this a realistic stand-in for an
+ * async network client. The quote itself is completed on the executor passed to {@link #fetch}, so the timer
+ * thread is never blocked by the caller's continuations.
+ */
+public class NonBlockingMarketDataSource implements MarketDataSource {
+
+    private final SimulatedMarketDataSource profile;
+    private final ScheduledThreadPoolExecutor timer;
+
+    public NonBlockingMarketDataSource(final SimulatedMarketDataSource profile,
+                                       final ScheduledThreadPoolExecutor timer) {
+        this.profile = Objects.requireNonNull(profile, "profile");
+        this.timer = Objects.requireNonNull(timer, "timer");
+    }
+
+    /**
+     * Same price and latency profile as the given blocking venue, on the shared timer.
+     */
+    public static NonBlockingMarketDataSource of(final SimulatedMarketDataSource profile) {
+        return new NonBlockingMarketDataSource(profile, SharedTimer.INSTANCE);
+    }
+
+    public static List<NonBlockingMarketDataSource> venues() {
+        return SimulatedMarketDataSource.venues()
+                                        .stream()
+                                        .map(NonBlockingMarketDataSource::of)
+                                        .collect(Collectors.toList());
+    }
+
+    /**
+     * Single daemon timer thread; cancelled quotes are removed from its queue straight away.
+     */
+    public static ScheduledThreadPoolExecutor newTimer(final String name) {
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    @Override
+    public String getName() {
+        return profile.getName();
+    }
+
+    @Override
+    public CompletableFuture<MarketData> fetch(final String symbol, final Executor executor) {
+        final CompletableFuture<MarketData> future = new CompletableFuture<>();
+        final ScheduledFuture<?> timeout = timer.schedule(() -> {
+            try {
+                executor.execute(() -> {
+                    if (profile.nextIsError()) {
+                        future.completeExceptionally(
+                                new IllegalStateException(profile.getName() + " failed to quote " + symbol));
+                    } else {
+                        future.complete(profile.quote(symbol));
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+        }, profile.nextLatencyNanos(), TimeUnit.NANOSECONDS);
+
+        // a cancelled request frees its timer slot
+        future.whenComplete((marketData, throwable) -> {
+            if (future.isCancelled()) {
+                timeout.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public String toString() {
+        return "NonBlockingMarketDataSource{" +
+                "profile=" + profile +
+                '}';
+    }
+
+    private static final class SharedTimer {
+
+        private static final ScheduledThreadPoolExecutor INSTANCE = newTimer("market-data-timer");
+    }
+
+}
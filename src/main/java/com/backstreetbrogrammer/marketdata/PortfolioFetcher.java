@@ -0,0 +1,225 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Prices a whole portfolio: fans out symbols x venues with a global limit on in-flight requests and a limit per
+ * venue, and streams the best price of each symbol to a {@link Listener} as soon as all its venues have answered.
+ * <p>
+ * Symbols are admitted lazily, so only the requests which can actually be in flight (plus a bounded backlog) are
+ * ever materialised, however long the portfolio is.
+ */
+public class PortfolioFetcher {
+
+    public interface Listener {
+
+        void onBestPrice(MarketData bestMarketData);
+
+        default void onFailure(final String symbol, final Throwable throwable) {
+        }
+    }
+
+    private final List<MarketDataSource> sources;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final int[] venueLimits;
+
+    public PortfolioFetcher(final List<? extends MarketDataSource> sources,
+                            final Executor executor,
+                            final int maxInFlight,
+                            final int defaultVenueLimit) {
+        this(sources, executor, maxInFlight, defaultVenueLimit, Map.of());
+    }
+
+    public PortfolioFetcher(final List<? extends MarketDataSource> sources,
+                            final Executor executor,
+                            final int maxInFlight,
+                            final int defaultVenueLimit,
+                            final Map<String, Integer> venueLimits) {
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("No market data sources");
+        }
+        if (maxInFlight < 1 || defaultVenueLimit < 1) {
+            throw new IllegalArgumentException("limits must be positive");
+        }
+        this.sources = List.copyOf(sources);
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.maxInFlight = maxInFlight;
+        this.venueLimits = new int[this.sources.size()];
+        for (int i = 0; i < this.sources.size(); i++) {
+            final int limit = venueLimits.getOrDefault(this.sources.get(i).getName(), defaultVenueLimit);
+            if (limit < 1) {
+                throw new IllegalArgumentException("venue limits must be positive");
+            }
+            this.venueLimits[i] = limit;
+        }
+    }
+
+    /**
+     * Prices every symbol; the returned future completes once all the symbols have been reported to the listener.
+     */
+    public CompletableFuture<Void> fetch(final Iterable<String> symbols, final Listener listener) {
+        final Run run = new Run(symbols.iterator(), listener);
+        run.pump();
+        return run.done;
+    }
+
+    private final class Run {
+
+        private final Iterator<String> symbols;
+        private final Listener listener;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        // all guarded by this
+        private final List<Deque<SymbolRequest>> venueQueues = new ArrayList<>();
+        private final int[] venueInFlight = new int[sources.size()];
+        private int inFlight;
+        private int queued;
+        private int admitted;
+        private int completed;
+        private int nextVenue;
+        private boolean pumping;
+        private boolean pumpAgain;
+
+        private Run(final Iterator<String> symbols, final Listener listener) {
+            this.symbols = symbols;
+            this.listener = Objects.requireNonNull(listener, "listener");
+            for (int i = 0; i < sources.size(); i++) {
+                venueQueues.add(new ArrayDeque<>());
+            }
+        }
+
+        private void pump() {
+            // a source completing synchronously calls pump() again from within dispatch(): that call only asks the
+            // running pump for another round, so this is a loop rather than a recursion
+            synchronized (this) {
+                if (pumping) {
+                    pumpAgain = true;
+                    return;
+                }
+                pumping = true;
+            }
+            final List<Runnable> dispatches = new ArrayList<>();
+            while (true) {
+                boolean finished = false;
+                synchronized (this) {
+                    while (inFlight < maxInFlight) {
+                        final int venue = nextDispatchableVenue();
+                        if (venue >= 0) {
+                            final SymbolRequest request = venueQueues.get(venue).poll();
+                            queued--;
+                            inFlight++;
+                            venueInFlight[venue]++;
+                            dispatches.add(() -> dispatch(request, venue));
+                        } else if (queued < maxInFlight && symbols.hasNext()) {
+                            admit(symbols.next());
+                        } else {
+                            break;
+                        }
+                    }
+                    if (dispatches.isEmpty()) {
+                        if (pumpAgain) {
+                            pumpAgain = false;
+                            continue;
+                        }
+                        pumping = false;
+                        finished = !symbols.hasNext() && completed == admitted;
+                    }
+                }
+                if (dispatches.isEmpty()) {
+                    if (finished) {
+                        done.complete(null);
+                    }
+                    return;
+                }
+
+                // start the requests outside the lock: a source may complete synchronously
+                dispatches.forEach(Runnable::run);
+                dispatches.clear();
+            }
+        }
+
+        private int nextDispatchableVenue() {
+            for (int i = 0; i < sources.size(); i++) {
+                final int venue = (nextVenue + i) % sources.size();
+                if (!venueQueues.get(venue).isEmpty() && venueInFlight[venue] < venueLimits[venue]) {
+                    nextVenue = (venue + 1) % sources.size();
+                    return venue;
+                }
+            }
+            return -1;
+        }
+
+        private void admit(final String symbol) {
+            final SymbolRequest request = new SymbolRequest(symbol, sources.size());
+            admitted++;
+            request.tracker.result().whenComplete((bestMarketData, throwable) -> onSymbolDone(request, throwable));
+            for (final Deque<SymbolRequest> queue : venueQueues) {
+                queue.add(request);
+                queued++;
+            }
+        }
+
+        private void dispatch(final SymbolRequest request, final int venue) {
+            CompletableFuture<MarketData> fetch;
+            try {
+                fetch = sources.get(venue).fetch(request.symbol, executor);
+            } catch (final RuntimeException e) {
+                fetch = CompletableFuture.failedFuture(e);
+            }
+            fetch.whenComplete((marketData, throwable) -> {
+                synchronized (this) {
+                    inFlight--;
+                    venueInFlight[venue]--;
+                }
+                if (throwable == null) {
+                    request.quotes.get(venue).complete(marketData);
+                } else {
+                    request.quotes.get(venue).completeExceptionally(throwable);
+                }
+                pump();
+            });
+        }
+
+        private void onSymbolDone(final SymbolRequest request, final Throwable throwable) {
+            try {
+                if (throwable == null) {
+                    listener.onBestPrice(request.tracker.result().join());
+                } else {
+                    listener.onFailure(request.symbol, throwable);
+                }
+            } finally {
+                synchronized (this) {
+                    completed++;
+                }
+            }
+        }
+    }
+
+    private static final class SymbolRequest {
+
+        private final String symbol;
+        private final List<CompletableFuture<MarketData>> quotes;
+        private final BestPriceTracker tracker;
+
+        private SymbolRequest(final String symbol, final int venues) {
+            this.symbol = symbol;
+            this.quotes = new ArrayList<>(venues);
+            for (int i = 0; i < venues; i++) {
+                quotes.add(new CompletableFuture<>());
+            }
+            this.tracker = BestPriceTracker.track(quotes);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Outcome of a deadline / quorum bounded best price request.
+ */
+public class QuorumResult {
+
+    private final MarketData bestMarketData;
+    private final List<String> respondedSources;
+    private final List<String> failedSources;
+    private final List<String> missingSources;
+    private final boolean quorumReached;
+
+    public QuorumResult(final MarketData bestMarketData,
+                        final List<String> respondedSources,
+                        final List<String> failedSources,
+                        final List<String> missingSources,
+                        final boolean quorumReached) {
+        this.bestMarketData = bestMarketData;
+        this.respondedSources = List.copyOf(respondedSources);
+        this.failedSources = List.copyOf(failedSources);
+        this.missingSources = List.copyOf(missingSources);
+        this.quorumReached = quorumReached;
+    }
+
+    /**
+     * Best quote among the sources which answered in time, empty if none did.
+     */
+    public Optional<MarketData> getBestMarketData() {
+        return Optional.ofNullable(bestMarketData);
+    }
+
+    public List<String> getRespondedSources() {
+        return respondedSources;
+    }
+
+    public List<String> getFailedSources() {
+        return failedSources;
+    }
+
+    /**
+     * Sources which had not answered when the result was cut.
+     */
+    public List<String> getMissingSources() {
+        return missingSources;
+    }
+
+    public boolean isQuorumReached() {
+        return quorumReached;
+    }
+
+    public boolean isComplete() {
+        return missingSources.isEmpty() && failedSources.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "QuorumResult{" +
+                "bestMarketData=" + bestMarketData +
+                ", respondedSources=" + respondedSources +
+                ", failedSources=" + failedSources +
+                ", missingSources=" + missingSources +
+                ", quorumReached=" + quorumReached +
+                '}';
+    }
+}
@@ -0,0 +1,283 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Quote cache keyed by (source, symbol) with a time to live and a maximum size.
+ * <p>
+ * Concurrent misses for the same key share a single in-flight request (single-flight). With a non-zero refresh
+ * ahead window, a hit on a quote which is about to expire triggers one background reload while the cached quote is
+ * still served. When full, the oldest entries are evicted first. Failed requests are never cached.
+ */
+public class QuoteCache {
+
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final int maximumSize;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public QuoteCache(final Duration ttl, final int maximumSize) {
+        this(ttl, Duration.ZERO, maximumSize);
+    }
+
+    public QuoteCache(final Duration ttl, final Duration refreshAhead, final int maximumSize) {
+        this(ttl, refreshAhead, maximumSize, System::nanoTime);
+    }
+
+    QuoteCache(final Duration ttl, final Duration refreshAhead, final int maximumSize, final LongSupplier nanoClock) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive but was " + ttl);
+        }
+        if (refreshAhead.isNegative() || refreshAhead.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("refreshAhead must be in [0, ttl) but was " + refreshAhead);
+        }
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive but was " + maximumSize);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAheadNanos = refreshAhead.toNanos();
+        this.maximumSize = maximumSize;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+    }
+
+    /**
+     * Decorates the source so that all its fetches go through this cache.
+     */
+    public MarketDataSource wrap(final MarketDataSource source) {
+        return new MarketDataSource() {
+            @Override
+            public String getName() {
+                return source.getName();
+            }
+
+            @Override
+            public CompletableFuture<MarketData> fetch(final String symbol, final Executor executor) {
+                return get(source, symbol, executor);
+            }
+        };
+    }
+
+    /**
+     * The cached quote if still fresh, otherwise the (possibly already in-flight) request to the source. Every caller
+     * gets its own copy of the shared future, so cancelling it never affects the other callers.
+     */
+    public CompletableFuture<MarketData> get(final MarketDataSource source,
+                                             final String symbol,
+                                             final Executor executor) {
+        final Key key = new Key(source.getName(), symbol);
+        while (true) {
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                final Entry loading = new Entry(key);
+                if (entries.putIfAbsent(key, loading) == null) {
+                    misses.increment();
+                    return load(loading, source, symbol, executor);
+                }
+                continue;
+            }
+
+            if (!entry.future.isDone()) {
+                coalesced.increment();
+                return entry.future.copy();
+            }
+
+            final long age = nanoClock.getAsLong() - entry.loadedAtNanos;
+            if (entry.future.isCompletedExceptionally() || age >= ttlNanos) {
+                final Entry loading = new Entry(key);
+                if (entries.replace(key, entry, loading)) {
+                    misses.increment();
+                    return load(loading, source, symbol, executor);
+                }
+                continue;
+            }
+
+            hits.increment();
+            if (refreshAheadNanos > 0L && age >= ttlNanos - refreshAheadNanos
+                    && entry.refreshing.compareAndSet(false, true)) {
+                refresh(entry, source, symbol, executor);
+            }
+            return entry.future.copy();
+        }
+    }
+
+    public void invalidate(final MarketDataSource source, final String symbol) {
+        entries.remove(new Key(source.getName(), symbol));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private CompletableFuture<MarketData> load(final Entry entry,
+                                               final MarketDataSource source,
+                                               final String symbol,
+                                               final Executor executor) {
+        enqueue(entry);
+        fetch(source, symbol, executor).whenComplete((marketData, throwable) -> {
+            if (throwable == null) {
+                entry.loadedAtNanos = nanoClock.getAsLong();
+                entry.future.complete(marketData);
+            } else {
+                entries.remove(entry.key, entry);
+                entry.future.completeExceptionally(throwable);
+            }
+        });
+        return entry.future.copy();
+    }
+
+    private void refresh(final Entry entry,
+                         final MarketDataSource source,
+                         final String symbol,
+                         final Executor executor) {
+        refreshes.increment();
+        fetch(source, symbol, executor).whenComplete((marketData, throwable) -> {
+            if (throwable == null) {
+                final Entry refreshed = new Entry(entry.key);
+                refreshed.loadedAtNanos = nanoClock.getAsLong();
+                refreshed.future.complete(marketData);
+                if (entries.replace(entry.key, entry, refreshed)) {
+                    enqueue(refreshed);
+                }
+            } else {
+                // keep serving the current quote until it expires
+                entry.refreshing.set(false);
+            }
+        });
+    }
+
+    private static CompletableFuture<MarketData> fetch(final MarketDataSource source,
+                                                       final String symbol,
+                                                       final Executor executor) {
+        try {
+            return source.fetch(symbol, executor);
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void enqueue(final Entry entry) {
+        insertionOrder.add(entry);
+        queued.incrementAndGet();
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        while (entries.size() > maximumSize) {
+            final Entry eldest = poll();
+            if (eldest == null) {
+                return;
+            }
+            // stale queue nodes (replaced or already removed entries) are simply dropped
+            if (entries.remove(eldest.key, eldest)) {
+                evictions.increment();
+            }
+        }
+
+        // reloads leave stale nodes behind: compact so the queue stays proportional to the maximum size
+        for (int excess = queued.get() - 2 * maximumSize; excess > 0; excess--) {
+            final Entry head = poll();
+            if (head == null) {
+                return;
+            }
+            if (entries.get(head.key) == head) {
+                insertionOrder.add(head);
+                queued.incrementAndGet();
+            }
+        }
+    }
+
+    private Entry poll() {
+        final Entry entry = insertionOrder.poll();
+        if (entry != null) {
+            queued.decrementAndGet();
+        }
+        return entry;
+    }
+
+    private static final class Key {
+
+        private final String source;
+        private final String symbol;
+
+        private Key(final String source, final String symbol) {
+            this.source = source;
+            this.symbol = symbol;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return source.equals(key.source) && symbol.equals(key.symbol);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * source.hashCode() + symbol.hashCode();
+        }
+    }
+
+    private static final class Entry {
+
+        private final Key key;
+        private final CompletableFuture<MarketData> future = new CompletableFuture<>();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long loadedAtNanos;
+
+        private Entry(final Key key) {
+            this.key = key;
+        }
+    }
+
+}
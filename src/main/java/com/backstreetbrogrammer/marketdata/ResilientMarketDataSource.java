@@ -0,0 +1,91 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.concurrent.CircuitBreaker;
+import com.backstreetbrogrammer.concurrent.CircuitOpenException;
+import com.backstreetbrogrammer.concurrent.Futures;
+import com.backstreetbrogrammer.concurrent.RetryBudget;
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Decorates a venue with a per-attempt timeout, retries paid from a (usually shared) {@link RetryBudget}, and a
+ * {@link CircuitBreaker}: a hung venue is cancelled after the timeout instead of holding its thread, and a sick one
+ * is shed after a few failures, failing fast until a half-open probe succeeds. Attempts rejected by the open circuit
+ * are not retried, unlike those rejected by a saturated executor.
+ */
+public class ResilientMarketDataSource implements MarketDataSource {
+
+    public static final Duration DEFAULT_ATTEMPT_TIMEOUT = Duration.ofMillis(250L);
+    public static final int DEFAULT_MAX_ATTEMPTS = 2;
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(5L);
+
+    private final MarketDataSource delegate;
+    private final Duration attemptTimeout;
+    private final int maxAttempts;
+    private final RetryBudget retryBudget;
+    private final CircuitBreaker circuitBreaker;
+
+    public ResilientMarketDataSource(final MarketDataSource delegate,
+                                     final Duration attemptTimeout,
+                                     final int maxAttempts,
+                                     final RetryBudget retryBudget,
+                                     final CircuitBreaker circuitBreaker) {
+        if (attemptTimeout.isNegative() || attemptTimeout.isZero()) {
+            throw new IllegalArgumentException("attemptTimeout must be positive but was " + attemptTimeout);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive but was " + maxAttempts);
+        }
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.attemptTimeout = attemptTimeout;
+        this.maxAttempts = maxAttempts;
+        this.retryBudget = Objects.requireNonNull(retryBudget, "retryBudget");
+        this.circuitBreaker = Objects.requireNonNull(circuitBreaker, "circuitBreaker");
+    }
+
+    /**
+     * Wraps every source with the default timeout, attempts and circuit breaker, all sharing the given budget.
+     */
+    public static List<ResilientMarketDataSource> wrapAll(final List<? extends MarketDataSource> sources,
+                                                          final RetryBudget retryBudget) {
+        final List<ResilientMarketDataSource> wrapped = new ArrayList<>(sources.size());
+        for (final MarketDataSource source : sources) {
+            wrapped.add(new ResilientMarketDataSource(source, DEFAULT_ATTEMPT_TIMEOUT, DEFAULT_MAX_ATTEMPTS,
+                                                      retryBudget,
+                                                      new CircuitBreaker(source.getName(), DEFAULT_FAILURE_THRESHOLD,
+                                                                         DEFAULT_OPEN_DURATION, 1)));
+        }
+        return wrapped;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public CompletableFuture<MarketData> fetch(final String symbol, final Executor executor) {
+        return Futures.retry(() -> circuitBreaker.call(
+                                     () -> Futures.withTimeout(delegate.fetch(symbol, executor), attemptTimeout)),
+                             maxAttempts,
+                             retryBudget,
+                             throwable -> !(throwable instanceof CircuitOpenException));
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResilientMarketDataSource{delegate=%s, circuitBreaker=%s}", delegate, circuitBreaker);
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.concurrent.ManagedBlocking;
+import com.backstreetbrogrammer.model.Interner;
+import com.backstreetbrogrammer.model.MarketData;
+import com.backstreetbrogrammer.model.Quote;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a blocking venue client: sleeps for a random latency and returns a random price.
+ */
+public class SimulatedMarketDataSource implements MarketDataSource {
+
+    private final String name;
+    private final int id;
+    private final double minPrice;
+    private final double maxPrice;
+    private final LatencyModel latency;
+    private final double errorRate;
+
+    public SimulatedMarketDataSource(final String name,
+                                     final double minPrice,
+                                     final double maxPrice,
+                                     final long minLatencyMillis,
+                                     final long maxLatencyMillis) {
+        this(name, minPrice, maxPrice,
+             LatencyModel.uniform(Duration.ofMillis(minLatencyMillis), Duration.ofMillis(maxLatencyMillis)), 0D);
+    }
+
+    /**
+     * A venue whose response times follow {@code latency}, and which fails a fraction {@code errorRate} of its
+     * requests (after the latency) with an {@link IllegalStateException}.
+     */
+    public SimulatedMarketDataSource(final String name,
+                                     final double minPrice,
+                                     final double maxPrice,
+                                     final LatencyModel latency,
+                                     final double errorRate) {
+        if (minPrice >= maxPrice) {
+            throw new IllegalArgumentException("minPrice must be less than maxPrice");
+        }
+        if (!(errorRate >= 0D && errorRate <= 1D)) {
+            throw new IllegalArgumentException("errorRate must be in [0, 1] but was " + errorRate);
+        }
+        this.name = name;
+        this.id = Interner.servers().intern(name);
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.latency = Objects.requireNonNull(latency, "latency");
+        this.errorRate = errorRate;
+    }
+
+    public static SimulatedMarketDataSource reuters() {
+        return new SimulatedMarketDataSource("Reuters", 40D, 60D, 80L, 120L);
+    }
+
+    public static SimulatedMarketDataSource bloomberg() {
+        return new SimulatedMarketDataSource("Bloomberg", 30D, 70D, 80L, 120L);
+    }
+
+    public static SimulatedMarketDataSource exegy() {
+        return new SimulatedMarketDataSource("Exegy", 40D, 80D, 80L, 120L);
+    }
+
+    public static List<SimulatedMarketDataSource> venues() {
+        return List.of(reuters(), bloomberg(), exegy());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CompletableFuture<MarketData> fetch(final String symbol, final Executor executor) {
+        // cancelling the returned future interrupts the sleep and frees the worker thread; on a fork join pool the
+        // pool compensates while the worker sleeps, instead of starving its other tasks
+        return ManagedBlocking.supplyAsync(() -> get(symbol), executor);
+    }
+
+    /**
+     * Blocking fetch on the calling thread.
+     */
+    public MarketData get(final String symbol) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(nextLatencyNanos());
+        if (nextIsError()) {
+            throw new IllegalStateException(name + " failed to quote " + symbol);
+        }
+        return quote(symbol);
+    }
+
+    /**
+     * A random quote in this venue's price range, without any latency.
+     */
+    public MarketData quote(final String symbol) {
+        return new MarketData(name, symbol, ThreadLocalRandom.current().nextDouble(minPrice, maxPrice));
+    }
+
+    /**
+     * Allocation-free variant of {@link #quote(String)}: writes a random quote into {@code into}. The timestamp is
+     * the caller's, typically read once per fan-out rather than per quote.
+     */
+    public Quote quote(final int symbolId, final long timestampNanos, final Quote into) {
+        return into.set(id, symbolId, ThreadLocalRandom.current().nextDouble(minPrice, maxPrice), timestampNanos);
+    }
+
+    public long nextLatencyNanos() {
+        return latency.nextLatencyNanos(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Whether the next request fails, drawn with probability {@link #getErrorRate()}.
+     */
+    public boolean nextIsError() {
+        return errorRate > 0D && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    /**
+     * This venue's {@link Interner#servers()} id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    public double getMinPrice() {
+        return minPrice;
+    }
+
+    public double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public LatencyModel getLatencyModel() {
+        return latency;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedMarketDataSource{" +
+                "name='" + name + '\'' +
+                ", price=[" + minPrice + ", " + maxPrice + ")" +
+                ", latency=" + latency +
+                ", errorRate=" + errorRate +
+                '}';
+    }
+}
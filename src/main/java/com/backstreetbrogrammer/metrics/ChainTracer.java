@@ -0,0 +1,142 @@
+package com.backstreetbrogrammer.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Instruments the stages of {@link java.util.concurrent.CompletableFuture} chains.
+ * <p>
+ * Each chain gets a {@link Trace}, whose wrappers record, per stage name: the queue wait (from the end of the
+ * previous stage of the same chain to the start of this one), the execution time, the executor it ran on and
+ * whether it hopped to another thread. Stages with the same name are aggregated across all the chains.
+ * <pre>
+ * ChainTracer.Trace trace = tracer.newTrace();
+ * CompletableFuture.supplyAsync(trace.supplier("fetch", () -&gt; getMarketData()), ioExecutor)
+ *                  .thenApply(trace.function("persist", md -&gt; writeToDB(md)))
+ *                  .thenApplyAsync(trace.function("notify", db -&gt; emailDatabaseDetails(db)), ioExecutor);
+ * </pre>
+ */
+public class ChainTracer {
+
+    private final Map<String, StageStats> stages = new ConcurrentHashMap<>();
+
+    public Trace newTrace() {
+        return new Trace();
+    }
+
+    public TraceSnapshot snapshot() {
+        final Map<String, TraceSnapshot.Stage> snapshot = new LinkedHashMap<>();
+        stages.forEach((name, stats) -> snapshot.put(name, stats.snapshot(name)));
+        return new TraceSnapshot(snapshot);
+    }
+
+    public void reset() {
+        stages.clear();
+    }
+
+    /**
+     * Executor label of a thread: its name without the trailing worker number, e.g. {@code io} for {@code io-3}.
+     */
+    static String executorOf(final Thread thread) {
+        final String name = thread.getName();
+        int end = name.length();
+        while (end > 0 && Character.isDigit(name.charAt(end - 1))) {
+            end--;
+        }
+        if (end < name.length() && end > 0 && name.charAt(end - 1) == '-') {
+            end--;
+        }
+        return end == 0 ? name : name.substring(0, end);
+    }
+
+    private StageStats stats(final String stage) {
+        return stages.computeIfAbsent(stage, key -> new StageStats());
+    }
+
+    /**
+     * Tracing context of one chain; its wrappers must be used for stages of that chain only.
+     */
+    public final class Trace {
+
+        private volatile long lastEndNanos = System.nanoTime();
+        private volatile Thread lastThread = Thread.currentThread();
+
+        private Trace() {
+        }
+
+        public <T> Supplier<T> supplier(final String stage, final Supplier<T> supplier) {
+            final StageStats stats = stats(stage);
+            return () -> {
+                final long start = begin(stats);
+                try {
+                    return supplier.get();
+                } finally {
+                    end(stats, start);
+                }
+            };
+        }
+
+        public <T, R> Function<T, R> function(final String stage, final Function<? super T, ? extends R> function) {
+            final StageStats stats = stats(stage);
+            return value -> {
+                final long start = begin(stats);
+                try {
+                    return function.apply(value);
+                } finally {
+                    end(stats, start);
+                }
+            };
+        }
+
+        public <T> Consumer<T> consumer(final String stage, final Consumer<? super T> consumer) {
+            final StageStats stats = stats(stage);
+            return value -> {
+                final long start = begin(stats);
+                try {
+                    consumer.accept(value);
+                } finally {
+                    end(stats, start);
+                }
+            };
+        }
+
+        private long begin(final StageStats stats) {
+            final long start = System.nanoTime();
+            final Thread current = Thread.currentThread();
+            stats.queueWait.record(start - lastEndNanos);
+            if (current != lastThread) {
+                stats.hops.increment();
+            }
+            stats.executors.computeIfAbsent(executorOf(current), key -> new LongAdder()).increment();
+            lastThread = current;
+            return start;
+        }
+
+        private void end(final StageStats stats, final long start) {
+            final long end = System.nanoTime();
+            stats.execution.record(end - start);
+            lastEndNanos = end;
+        }
+    }
+
+    private static final class StageStats {
+
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        private final LatencyHistogram execution = new LatencyHistogram();
+        private final LongAdder hops = new LongAdder();
+        private final Map<String, LongAdder> executors = new ConcurrentHashMap<>();
+
+        private TraceSnapshot.Stage snapshot(final String name) {
+            final Map<String, Long> executorCounts = new LinkedHashMap<>();
+            executors.forEach((executor, counter) -> executorCounts.put(executor, counter.sum()));
+            return new TraceSnapshot.Stage(name, queueWait.snapshot(), execution.snapshot(), hops.sum(),
+                                           executorCounts);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.backstreetbrogrammer.metrics;
+
+/**
+ * Immutable percentiles of a {@link LatencyHistogram}, in nanoseconds.
+ */
+public class HistogramSnapshot {
+
+    private final long count;
+    private final double mean;
+    private final long max;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+
+    public HistogramSnapshot(final long count,
+                             final double mean,
+                             final long max,
+                             final long p50,
+                             final long p90,
+                             final long p99,
+                             final long p999) {
+        this.count = count;
+        this.mean = mean;
+        this.max = max;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{count=%d, mean=%.1fus, p50=%.1fus, p90=%.1fus, p99=%.1fus, p999=%.1fus, max=%.1fus}",
+                             count, mean / 1e3D, p50 / 1e3D, p90 / 1e3D, p99 / 1e3D, p999 / 1e3D, max / 1e3D);
+    }
+}
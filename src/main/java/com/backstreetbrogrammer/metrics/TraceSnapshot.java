@@ -0,0 +1,96 @@
+package com.backstreetbrogrammer.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable export of a {@link ChainTracer}: queue wait and execution histograms, thread hops and executors per
+ * stage.
+ */
+public class TraceSnapshot {
+
+    private final Map<String, Stage> stages;
+
+    public TraceSnapshot(final Map<String, Stage> stages) {
+        this.stages = Collections.unmodifiableMap(new LinkedHashMap<>(stages));
+    }
+
+    public Map<String, Stage> getStages() {
+        return stages;
+    }
+
+    public Stage getStage(final String name) {
+        final Stage stage = stages.get(name);
+        if (stage == null) {
+            throw new IllegalArgumentException(String.format("No stage named [%s]", name));
+        }
+        return stage;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TraceSnapshot{");
+        stages.values().forEach(stage -> sb.append(System.lineSeparator()).append("    ").append(stage));
+        return sb.append(System.lineSeparator()).append('}').toString();
+    }
+
+    public static class Stage {
+
+        private final String name;
+        private final HistogramSnapshot queueWait;
+        private final HistogramSnapshot execution;
+        private final long threadHops;
+        private final Map<String, Long> executors;
+
+        public Stage(final String name,
+                     final HistogramSnapshot queueWait,
+                     final HistogramSnapshot execution,
+                     final long threadHops,
+                     final Map<String, Long> executors) {
+            this.name = name;
+            this.queueWait = queueWait;
+            this.execution = execution;
+            this.threadHops = threadHops;
+            this.executors = Collections.unmodifiableMap(new LinkedHashMap<>(executors));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public HistogramSnapshot getQueueWait() {
+            return queueWait;
+        }
+
+        public HistogramSnapshot getExecution() {
+            return execution;
+        }
+
+        public long getInvocations() {
+            return execution.getCount();
+        }
+
+        public long getThreadHops() {
+            return threadHops;
+        }
+
+        /**
+         * Number of invocations of this stage per executor (thread name without the worker number).
+         */
+        public Map<String, Long> getExecutors() {
+            return executors;
+        }
+
+        @Override
+        public String toString() {
+            return "Stage{" +
+                    "name='" + name + '\'' +
+                    ", queueWait=" + queueWait +
+                    ", execution=" + execution +
+                    ", threadHops=" + threadHops +
+                    ", executors=" + executors +
+                    '}';
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.backstreetbrogrammer.model;
 
+import java.util.Objects;
+
 public class Database {
 
     private final String databaseName;
@@ -10,6 +12,31 @@ public class Database {
         this.tableName = tableName;
     }
 
+    public String getDatabaseName() {
+        return databaseName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final Database database = (Database) o;
+        return Objects.equals(databaseName, database.databaseName) && Objects.equals(tableName, database.tableName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(databaseName, tableName);
+    }
+
     @Override
     public String toString() {
         return "Database{" +
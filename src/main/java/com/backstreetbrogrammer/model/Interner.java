@@ -0,0 +1,67 @@
+package com.backstreetbrogrammer.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps names (servers, symbols) to small dense int ids and back, so hot-path types can carry an {@code int} instead
+ * of a {@link String}. Looking up a name already interned, or the name of an id, does not allocate.
+ */
+public final class Interner {
+
+    private static final Interner SERVERS = new Interner();
+    private static final Interner SYMBOLS = new Interner();
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private int size; // guarded by this
+
+    public static Interner servers() {
+        return SERVERS;
+    }
+
+    public static Interner symbols() {
+        return SYMBOLS;
+    }
+
+    public int intern(final String name) {
+        final Integer id = ids.get(name);
+        return id != null ? id : register(name);
+    }
+
+    /**
+     * Id of the name, or -1 if it was never interned.
+     */
+    public int idOf(final String name) {
+        final Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    public String name(final int id) {
+        final String[] snapshot = names;
+        final String name = id >= 0 && id < snapshot.length ? snapshot[id] : null;
+        if (name == null) {
+            throw new IllegalArgumentException("Unknown id: " + id);
+        }
+        return name;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized int register(final String name) {
+        final Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = name;
+        // published after the name, so any thread which got the id can resolve it
+        ids.put(name, size);
+        return size++;
+    }
+
+}
@@ -12,6 +12,14 @@ public class MarketData {
         this.price = price;
     }
 
+    public String getServer() {
+        return server;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
     public double getPrice() {
         return price;
     }
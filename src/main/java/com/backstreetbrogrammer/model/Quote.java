@@ -0,0 +1,74 @@
+package com.backstreetbrogrammer.model;
+
+/**
+ * Mutable, primitive-only counterpart of {@link MarketData} for the hot path: server and symbol are
+ * {@link Interner} ids, the price and timestamp are primitives. Instances are meant to be reused (see
+ * {@code QuotePool}) rather than allocated per quote, and must not be shared while being written.
+ */
+public final class Quote {
+
+    private int serverId = -1;
+    private int symbolId = -1;
+    private double price = Double.NaN;
+    private long timestampNanos;
+
+    public Quote set(final int serverId, final int symbolId, final double price, final long timestampNanos) {
+        this.serverId = serverId;
+        this.symbolId = symbolId;
+        this.price = price;
+        this.timestampNanos = timestampNanos;
+        return this;
+    }
+
+    public Quote copyFrom(final Quote other) {
+        return set(other.serverId, other.symbolId, other.price, other.timestampNanos);
+    }
+
+    public Quote clear() {
+        return set(-1, -1, Double.NaN, 0L);
+    }
+
+    public boolean isEmpty() {
+        return serverId < 0;
+    }
+
+    public int getServerId() {
+        return serverId;
+    }
+
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public static Quote from(final MarketData marketData, final long timestampNanos) {
+        return new Quote().set(Interner.servers().intern(marketData.getServer()),
+                               Interner.symbols().intern(marketData.getSymbol()),
+                               marketData.getPrice(),
+                               timestampNanos);
+    }
+
+    /**
+     * Allocates: for the edges of the system only.
+     */
+    public MarketData toMarketData() {
+        return new MarketData(Interner.servers().name(serverId), Interner.symbols().name(symbolId), price);
+    }
+
+    @Override
+    public String toString() {
+        return "Quote{" +
+                "serverId=" + serverId +
+                ", symbolId=" + symbolId +
+                ", price=" + price +
+                ", timestampNanos=" + timestampNanos +
+                '}';
+    }
+}
@@ -0,0 +1,185 @@
+package com.backstreetbrogrammer.pipeline;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Debouncing notification stage: notifications with the same key (e.g. recipient / table) received within a time
+ * window are merged into a single digest, and only the digest is sent.
+ * <p>
+ * A digest holds the merged content, not the individual notifications; each caller gets its own dependent copy of
+ * the digest's future, so a pending notification costs one small future until its digest is sent. At most
+ * {@code maxConcurrentSends} digests are being sent at any time: when the sink is slow, closed windows wait for a free
+ * slot and keep absorbing new notifications, and the callers' futures complete later.
+ * <p>
+ * {@link #submit} itself never blocks nor rejects: the number of pending notifications is bounded by the caller's own
+ * in-flight limit, e.g. the {@code maxInFlight} of a {@link Pipeline} {@code asyncStage}, which the late futures
+ * then push back on.
+ *
+ * @param <T> notification
+ * @param <K> key notifications are aggregated by
+ * @param <D> digest
+ * @param <R> result of sending a digest
+ */
+public class AggregatingNotifier<T, K, D, R> {
+
+    @FunctionalInterface
+    public interface DigestSender<K, D, R> {
+
+        R send(K key, D digest) throws Exception;
+    }
+
+    private final Function<? super T, ? extends K> keyFunction;
+    private final Function<? super K, ? extends D> newDigest;
+    private final BiFunction<? super D, ? super T, ? extends D> merger;
+    private final DigestSender<? super K, ? super D, ? extends R> sender;
+    private final long windowNanos;
+    private final int maxConcurrentSends;
+    private final Executor sendExecutor;
+    private final ScheduledExecutorService scheduler;
+
+    // all guarded by this
+    private final Map<K, Bucket> buckets = new HashMap<>();
+    private final Queue<Bucket> ready = new ArrayDeque<>();
+    private int sending;
+    private long notifications;
+    private long digests;
+
+    public AggregatingNotifier(final Function<? super T, ? extends K> keyFunction,
+                               final Function<? super K, ? extends D> newDigest,
+                               final BiFunction<? super D, ? super T, ? extends D> merger,
+                               final DigestSender<? super K, ? super D, ? extends R> sender,
+                               final Duration window,
+                               final int maxConcurrentSends,
+                               final Executor sendExecutor,
+                               final ScheduledExecutorService scheduler) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("window must not be negative but was " + window);
+        }
+        if (maxConcurrentSends < 1) {
+            throw new IllegalArgumentException("maxConcurrentSends must be positive but was " + maxConcurrentSends);
+        }
+        this.keyFunction = Objects.requireNonNull(keyFunction, "keyFunction");
+        this.newDigest = Objects.requireNonNull(newDigest, "newDigest");
+        this.merger = Objects.requireNonNull(merger, "merger");
+        this.sender = Objects.requireNonNull(sender, "sender");
+        this.windowNanos = window.toNanos();
+        this.maxConcurrentSends = maxConcurrentSends;
+        this.sendExecutor = Objects.requireNonNull(sendExecutor, "sendExecutor");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+    }
+
+    /**
+     * Merges the notification into its key's open digest; the future, a copy private to the caller, completes when
+     * that digest has been sent.
+     */
+    public CompletableFuture<R> submit(final T notification) {
+        final K key = keyFunction.apply(notification);
+        final Bucket bucket;
+        boolean opened = false;
+        synchronized (this) {
+            Bucket existing = buckets.get(key);
+            if (existing == null) {
+                existing = new Bucket(key, newDigest.apply(key));
+                buckets.put(key, existing);
+                opened = true;
+            }
+            bucket = existing;
+            bucket.digest = merger.apply(bucket.digest, notification);
+            notifications++;
+        }
+        if (opened) {
+            try {
+                scheduler.schedule(() -> closeWindow(bucket), windowNanos, TimeUnit.NANOSECONDS);
+            } catch (final RejectedExecutionException e) {
+                closeWindow(bucket);
+            }
+        }
+        return bucket.future.copy();
+    }
+
+    public synchronized int getOpenDigests() {
+        return buckets.size();
+    }
+
+    public synchronized long getNotifications() {
+        return notifications;
+    }
+
+    public synchronized long getDigests() {
+        return digests;
+    }
+
+    private void closeWindow(final Bucket bucket) {
+        synchronized (this) {
+            ready.add(bucket);
+        }
+        drain();
+    }
+
+    private void drain() {
+        while (true) {
+            final Bucket bucket;
+            final D digest;
+            synchronized (this) {
+                if (sending >= maxConcurrentSends || ready.isEmpty()) {
+                    return;
+                }
+                bucket = ready.poll();
+                // from now on new notifications for this key open a new window
+                buckets.remove(bucket.key, bucket);
+                digest = bucket.digest;
+                sending++;
+                digests++;
+            }
+            send(bucket, digest);
+        }
+    }
+
+    private void send(final Bucket bucket, final D digest) {
+        final Runnable task = () -> {
+            try {
+                bucket.future.complete(sender.send(bucket.key, digest));
+            } catch (final Throwable t) {
+                bucket.future.completeExceptionally(t);
+            } finally {
+                synchronized (this) {
+                    sending--;
+                }
+                drain();
+            }
+        };
+        try {
+            sendExecutor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            bucket.future.completeExceptionally(e);
+            synchronized (this) {
+                sending--;
+            }
+        }
+    }
+
+    private final class Bucket {
+
+        private final K key;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+        private D digest; // guarded by AggregatingNotifier.this
+
+        private Bucket(final K key, final D digest) {
+            this.key = key;
+            this.digest = digest;
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.backstreetbrogrammer.pipeline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micro-batching pipeline stage: collects items submitted by many concurrent chains and writes them with one
+ * {@link BatchWriter} call, once {@code maxBatchSize} items are collected or the first item of the batch has
+ * waited for {@code linger}, whichever comes first.
+ * <p>
+ * Every caller's future completes with the result of the batch its item was written in.
+ */
+public class BatchingStage<T, R> implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface BatchWriter<T, R> {
+
+        R write(List<T> batch) throws Exception;
+    }
+
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final BatchWriter<T, R> writer;
+    private final Executor writeExecutor;
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder items = new LongAdder();
+
+    // all guarded by this
+    private List<T> batch;
+    private List<CompletableFuture<R>> waiters;
+    private ScheduledFuture<?> lingerTimer;
+    private boolean closed;
+
+    public BatchingStage(final int maxBatchSize,
+                         final Duration linger,
+                         final BatchWriter<T, R> writer,
+                         final Executor writeExecutor,
+                         final ScheduledExecutorService scheduler) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive but was " + maxBatchSize);
+        }
+        if (linger.isNegative()) {
+            throw new IllegalArgumentException("linger must not be negative but was " + linger);
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.writer = Objects.requireNonNull(writer, "writer");
+        this.writeExecutor = Objects.requireNonNull(writeExecutor, "writeExecutor");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        newBatch();
+    }
+
+    public CompletableFuture<R> submit(final T item) {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        List<T> full = null;
+        List<CompletableFuture<R>> fullWaiters = null;
+        synchronized (this) {
+            if (closed) {
+                future.completeExceptionally(new RejectedExecutionException("Batching stage is closed"));
+                return future;
+            }
+            batch.add(item);
+            waiters.add(future);
+            if (batch.size() >= maxBatchSize) {
+                full = batch;
+                fullWaiters = waiters;
+                cancelLingerTimer();
+                newBatch();
+            } else if (batch.size() == 1) {
+                final List<T> lingering = batch;
+                lingerTimer = scheduler.schedule(() -> flush(lingering), lingerNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            write(full, fullWaiters);
+        }
+        return future;
+    }
+
+    /**
+     * Writes whatever is in the current batch now, without waiting for it to fill up or linger.
+     */
+    public void flush() {
+        final List<T> current;
+        synchronized (this) {
+            current = batch;
+        }
+        flush(current);
+    }
+
+    /**
+     * Flushes the pending batch and rejects further submissions.
+     */
+    @Override
+    public void close() {
+        final List<T> last;
+        final List<CompletableFuture<R>> lastWaiters;
+        synchronized (this) {
+            // closing and taking the last batch at once: no submission can slip in between
+            if (closed) {
+                return;
+            }
+            closed = true;
+            last = batch;
+            lastWaiters = waiters;
+            cancelLingerTimer();
+            newBatch();
+        }
+        if (!last.isEmpty()) {
+            write(last, lastWaiters);
+        }
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getItems() {
+        return items.sum();
+    }
+
+    private void flush(final List<T> expected) {
+        final List<T> current;
+        final List<CompletableFuture<R>> currentWaiters;
+        synchronized (this) {
+            // the batch may already have been written because it filled up
+            if (batch != expected || batch.isEmpty()) {
+                return;
+            }
+            current = batch;
+            currentWaiters = waiters;
+            cancelLingerTimer();
+            newBatch();
+        }
+        write(current, currentWaiters);
+    }
+
+    private void write(final List<T> batchToWrite, final List<CompletableFuture<R>> batchWaiters) {
+        try {
+            writeExecutor.execute(() -> {
+                try {
+                    final R result = writer.write(batchToWrite);
+                    batches.increment();
+                    items.add(batchToWrite.size());
+                    batchWaiters.forEach(waiter -> waiter.complete(result));
+                } catch (final Throwable t) {
+                    batchWaiters.forEach(waiter -> waiter.completeExceptionally(t));
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            batchWaiters.forEach(waiter -> waiter.completeExceptionally(e));
+        }
+    }
+
+    private void newBatch() {
+        batch = new ArrayList<>(Math.min(maxBatchSize, 1024));
+        waiters = new ArrayList<>(Math.min(maxBatchSize, 1024));
+    }
+
+    private void cancelLingerTimer() {
+        if (lingerTimer != null) {
+            lingerTimer.cancel(false);
+            lingerTimer = null;
+        }
+    }
+
+}
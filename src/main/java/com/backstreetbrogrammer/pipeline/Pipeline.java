@@ -0,0 +1,233 @@
+package com.backstreetbrogrammer.pipeline;
+
+import com.backstreetbrogrammer.concurrent.AsyncLimiter;
+import com.backstreetbrogrammer.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pipelined executor for chained asynchronous tasks.
+ * <p>
+ * Stages (e.g. fetch, persist, notify) are declared once, each with its own executor and a bound on the items it
+ * has in flight. Many items then flow through concurrently: stage N of one item overlaps with stage N-1 of the
+ * next, and a saturated stage queues items without holding any thread.
+ * <pre>
+ * Pipeline&lt;String, Email&gt; pipeline =
+ *         Pipeline.&lt;String&gt;builder()
+ *                 .stage("fetch", symbol -&gt; fetch(symbol), ioExecutor, 64)
+ *                 .asyncStage("persist", dbWriter::submit, 8)
+ *                 .stage("notify", db -&gt; email(db), ioExecutor, 4)
+ *                 .build();
+ * </pre>
+ *
+ * @param <I> input item
+ * @param <O> output of the last stage
+ */
+public class Pipeline<I, O> {
+
+    private final List<Stage> stages;
+    private final long createdNanos = System.nanoTime();
+    private final LongAdder completedItems = new LongAdder();
+    private final LongAdder failedItems = new LongAdder();
+    private final LatencyHistogram latencyNanos = new LatencyHistogram();
+
+    private Pipeline(final List<Stage> stages) {
+        this.stages = List.copyOf(stages);
+    }
+
+    public static <I> Builder<I, I> builder() {
+        return new Builder<>(List.of());
+    }
+
+    /**
+     * Sends one item through all the stages.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<O> submit(final I item) {
+        final long start = System.nanoTime();
+        CompletableFuture<Object> future = CompletableFuture.completedFuture(item);
+        for (final Stage stage : stages) {
+            future = future.thenCompose(stage::apply);
+        }
+        return (CompletableFuture<O>) future.whenComplete((output, throwable) -> {
+            if (throwable == null) {
+                completedItems.increment();
+                latencyNanos.record(System.nanoTime() - start);
+            } else {
+                failedItems.increment();
+            }
+        });
+    }
+
+    /**
+     * Sends all the items through the pipeline, pulling the next item only while fewer than
+     * {@code maxItemsInFlight} are in the pipeline. Outputs are passed to {@code onResult} in completion order;
+     * failed items are only counted in the metrics.
+     */
+    public CompletableFuture<Void> process(final Iterable<? extends I> items,
+                                           final int maxItemsInFlight,
+                                           final Consumer<? super O> onResult) {
+        if (maxItemsInFlight < 1) {
+            throw new IllegalArgumentException("maxItemsInFlight must be positive but was " + maxItemsInFlight);
+        }
+        final Feeder feeder = new Feeder(items.iterator(), new AsyncLimiter(maxItemsInFlight), onResult);
+        feeder.pump();
+        return feeder.done;
+    }
+
+    public PipelineMetrics metrics() {
+        final double elapsedSeconds = Math.max(1L, System.nanoTime() - createdNanos) / 1e9D;
+        final List<StageMetrics> stageMetrics = new ArrayList<>(stages.size());
+        for (final Stage stage : stages) {
+            stageMetrics.add(stage.metrics(elapsedSeconds));
+        }
+        final long completed = completedItems.sum();
+        return new PipelineMetrics(stageMetrics,
+                                   completed,
+                                   failedItems.sum(),
+                                   completed / elapsedSeconds,
+                                   latencyNanos.snapshot());
+    }
+
+    /**
+     * Pulls items into the pipeline while its limiter has no item waiting, so the input is consumed at the
+     * pipeline's pace and at most {@code maxItemsInFlight + 1} items are materialised at a time.
+     */
+    private final class Feeder {
+
+        private final Iterator<? extends I> iterator;
+        private final AsyncLimiter limiter;
+        private final Consumer<? super O> onResult;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        // all guarded by this
+        private int pending;
+        private boolean draining;
+        private boolean pumpAgain;
+
+        private Feeder(final Iterator<? extends I> iterator,
+                       final AsyncLimiter limiter,
+                       final Consumer<? super O> onResult) {
+            this.iterator = iterator;
+            this.limiter = limiter;
+            this.onResult = Objects.requireNonNull(onResult, "onResult");
+        }
+
+        private void pump() {
+            // items which complete synchronously pump again from inside the loop, so this never recurses
+            synchronized (this) {
+                if (draining) {
+                    pumpAgain = true;
+                    return;
+                }
+                draining = true;
+            }
+            while (true) {
+                final I item;
+                synchronized (this) {
+                    if (iterator.hasNext() && limiter.getQueued() == 0) {
+                        item = iterator.next();
+                        pending++;
+                    } else if (pumpAgain) {
+                        pumpAgain = false;
+                        continue;
+                    } else {
+                        draining = false;
+                        if (pending > 0 || iterator.hasNext()) {
+                            return;
+                        }
+                        break;
+                    }
+                }
+                limiter.submit(() -> submit(item)).whenComplete((output, throwable) -> {
+                    try {
+                        if (throwable == null) {
+                            onResult.accept(output);
+                        }
+                    } finally {
+                        synchronized (this) {
+                            pending--;
+                        }
+                        pump();
+                    }
+                });
+            }
+            done.complete(null);
+        }
+    }
+
+    /**
+     * Keeps stage factories rather than stages, so that every pipeline built gets its own limiters and counters.
+     */
+    public static final class Builder<I, T> {
+
+        private final List<Supplier<Stage>> stages;
+
+        private Builder(final List<Supplier<Stage>> stages) {
+            this.stages = stages;
+        }
+
+        /**
+         * Adds a (possibly blocking) stage which runs on the given executor.
+         */
+        @SuppressWarnings("unchecked")
+        public <R> Builder<I, R> stage(final String name,
+                                       final Function<? super T, ? extends R> function,
+                                       final Executor executor,
+                                       final int maxInFlight) {
+            Objects.requireNonNull(function, "function");
+            Objects.requireNonNull(executor, "executor");
+            checkMaxInFlight(maxInFlight);
+            return then(() -> new Stage(name, maxInFlight, input -> function.apply((T) input), executor));
+        }
+
+        /**
+         * Adds a stage which is itself asynchronous, e.g. a {@link BatchingStage} or an {@link AggregatingNotifier}.
+         */
+        @SuppressWarnings("unchecked")
+        public <R> Builder<I, R> asyncStage(final String name,
+                                            final Function<? super T, ? extends CompletionStage<R>> function,
+                                            final int maxInFlight) {
+            Objects.requireNonNull(function, "function");
+            checkMaxInFlight(maxInFlight);
+            return then(() -> new Stage(name, maxInFlight, input -> function.apply((T) input), null));
+        }
+
+        public Pipeline<I, T> build() {
+            if (stages.isEmpty()) {
+                throw new IllegalStateException("A pipeline needs at least one stage");
+            }
+            final List<Stage> built = new ArrayList<>(stages.size());
+            for (final Supplier<Stage> stage : stages) {
+                built.add(stage.get());
+            }
+            return new Pipeline<>(built);
+        }
+
+        /**
+         * A builder with one more stage; this one is left as is, so pipelines can branch from it.
+         */
+        private <R> Builder<I, R> then(final Supplier<Stage> stage) {
+            final List<Supplier<Stage>> next = new ArrayList<>(stages);
+            next.add(stage);
+            return new Builder<>(next);
+        }
+
+        private static void checkMaxInFlight(final int maxInFlight) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("maxInFlight must be positive but was " + maxInFlight);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.backstreetbrogrammer.pipeline;
+
+import com.backstreetbrogrammer.metrics.HistogramSnapshot;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Point in time snapshot of a {@link Pipeline}: per-stage metrics plus end-to-end latency of the items.
+ */
+public class PipelineMetrics {
+
+    private final List<StageMetrics> stages;
+    private final long completedItems;
+    private final long failedItems;
+    private final double throughputPerSecond;
+    private final HistogramSnapshot latency;
+
+    public PipelineMetrics(final List<StageMetrics> stages,
+                           final long completedItems,
+                           final long failedItems,
+                           final double throughputPerSecond,
+                           final HistogramSnapshot latency) {
+        this.stages = List.copyOf(stages);
+        this.completedItems = completedItems;
+        this.failedItems = failedItems;
+        this.throughputPerSecond = throughputPerSecond;
+        this.latency = latency;
+    }
+
+    public List<StageMetrics> getStages() {
+        return stages;
+    }
+
+    public long getCompletedItems() {
+        return completedItems;
+    }
+
+    public long getFailedItems() {
+        return failedItems;
+    }
+
+    public double getThroughputPerSecond() {
+        return throughputPerSecond;
+    }
+
+    /**
+     * End-to-end latency of the items in nanoseconds: the sum of their waiting and service times along the critical
+     * path, which for a pipeline is every stage.
+     */
+    public HistogramSnapshot getLatency() {
+        return latency;
+    }
+
+    public double getMeanLatencyMicros() {
+        return latency.getMean() / 1e3D;
+    }
+
+    public double getMaxLatencyMicros() {
+        return latency.getMax() / 1e3D;
+    }
+
+    /**
+     * The stage contributing the most to the critical path latency, i.e. the one to tune first.
+     */
+    public StageMetrics getBottleneck() {
+        return stages.stream()
+                     .max(Comparator.comparingDouble(StageMetrics::getMeanLatencyMicros))
+                     .orElseThrow();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("PipelineMetrics{completed=%d, failed=%d, throughput=%.1f/s, latency=%s, "
+                                        + "bottleneck='%s'}",
+                                completedItems, failedItems, throughputPerSecond,
+                                latency, getBottleneck().getName()));
+        for (final StageMetrics stage : stages) {
+            sb.append(System.lineSeparator()).append("    ").append(stage);
+        }
+        return sb.toString();
+    }
+}
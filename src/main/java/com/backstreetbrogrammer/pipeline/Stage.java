@@ -0,0 +1,83 @@
+package com.backstreetbrogrammer.pipeline;
+
+import com.backstreetbrogrammer.concurrent.AsyncLimiter;
+import com.backstreetbrogrammer.metrics.LatencyHistogram;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * One {@link Pipeline} stage: an in-flight limit in front of the stage function, and its counters.
+ */
+class Stage {
+
+    private final String name;
+    private final AsyncLimiter limiter;
+    private final Function<Object, ?> function;
+    private final Executor executor; // null for asynchronous stages
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyHistogram waitNanos = new LatencyHistogram();
+    private final LatencyHistogram serviceNanos = new LatencyHistogram();
+
+    /**
+     * A synchronous stage runs {@code function} on {@code executor}; an asynchronous one ({@code executor == null})
+     * has a {@code function} which returns a {@link CompletionStage}.
+     */
+    Stage(final String name, final int maxInFlight, final Function<Object, ?> function, final Executor executor) {
+        this.name = name;
+        this.limiter = new AsyncLimiter(maxInFlight);
+        this.function = function;
+        this.executor = executor;
+    }
+
+    CompletableFuture<Object> apply(final Object input) {
+        final long arrival = System.nanoTime();
+        return limiter.submit(() -> (executor == null ? applyAsync(input, arrival) : applySync(input, arrival))
+                .whenComplete((value, throwable) -> {
+                    if (throwable == null) {
+                        completed.increment();
+                    } else {
+                        failed.increment();
+                    }
+                }));
+    }
+
+    StageMetrics metrics(final double elapsedSeconds) {
+        return new StageMetrics(name,
+                                completed.sum(),
+                                failed.sum(),
+                                limiter.getInFlight(),
+                                limiter.getQueued(),
+                                completed.sum() / elapsedSeconds,
+                                waitNanos.snapshot(),
+                                serviceNanos.snapshot());
+    }
+
+    private CompletableFuture<Object> applySync(final Object input, final long arrival) {
+        return CompletableFuture.supplyAsync(() -> {
+            // time spent in the executor's queue counts as waiting
+            final long started = System.nanoTime();
+            waitNanos.record(started - arrival);
+            try {
+                return function.apply(input);
+            } finally {
+                serviceNanos.record(System.nanoTime() - started);
+            }
+        }, executor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Object> applyAsync(final Object input, final long arrival) {
+        final long started = System.nanoTime();
+        waitNanos.record(started - arrival);
+        return ((CompletionStage<Object>) function.apply(input))
+                .toCompletableFuture()
+                .whenComplete((value, throwable) -> serviceNanos.record(System.nanoTime() - started));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.backstreetbrogrammer.pipeline;
+
+import com.backstreetbrogrammer.metrics.HistogramSnapshot;
+
+/**
+ * Point in time snapshot of one {@link Pipeline} stage. Waiting time covers the stage's in-flight limit and its
+ * executor's queue, service time the stage function itself.
+ */
+public class StageMetrics {
+
+    private final String name;
+    private final long completed;
+    private final long failed;
+    private final int inFlight;
+    private final int queued;
+    private final double throughputPerSecond;
+    private final HistogramSnapshot wait;
+    private final HistogramSnapshot service;
+
+    public StageMetrics(final String name,
+                        final long completed,
+                        final long failed,
+                        final int inFlight,
+                        final int queued,
+                        final double throughputPerSecond,
+                        final HistogramSnapshot wait,
+                        final HistogramSnapshot service) {
+        this.name = name;
+        this.completed = completed;
+        this.failed = failed;
+        this.inFlight = inFlight;
+        this.queued = queued;
+        this.throughputPerSecond = throughputPerSecond;
+        this.wait = wait;
+        this.service = service;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public double getThroughputPerSecond() {
+        return throughputPerSecond;
+    }
+
+    /**
+     * Nanoseconds spent waiting for the in-flight limit and the executor.
+     */
+    public HistogramSnapshot getWait() {
+        return wait;
+    }
+
+    /**
+     * Nanoseconds spent in the stage function.
+     */
+    public HistogramSnapshot getService() {
+        return service;
+    }
+
+    public double getMeanWaitMicros() {
+        return wait.getMean() / 1e3D;
+    }
+
+    public double getMeanServiceMicros() {
+        return service.getMean() / 1e3D;
+    }
+
+    public double getMeanLatencyMicros() {
+        return getMeanWaitMicros() + getMeanServiceMicros();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StageMetrics{name='%s', completed=%d, failed=%d, inFlight=%d, queued=%d, "
+                                     + "throughput=%.1f/s, wait=%s, service=%s}",
+                             name, completed, failed, inFlight, queued, throughputPerSecond, wait, service);
+    }
+}
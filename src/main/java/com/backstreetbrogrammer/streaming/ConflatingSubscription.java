@@ -0,0 +1,169 @@
+package com.backstreetbrogrammer.streaming;
+
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Subscription of one downstream subscriber to a {@link TopOfBookProcessor}.
+ * <p>
+ * Quotes are delivered on the executor, in demand order, one signal at a time. Quotes offered while the subscriber
+ * has no demand are conflated: only the latest one per symbol is kept, so a slow subscriber always gets the
+ * current best price next instead of a backlog of stale ones.
+ */
+final class ConflatingSubscription implements Flow.Subscription {
+
+    private final Flow.Subscriber<? super MarketData> subscriber;
+    private final Executor executor;
+    private final TopOfBookProcessor processor;
+
+    // all guarded by this
+    private final Map<String, MarketData> pending = new LinkedHashMap<>();
+    private boolean subscribed;
+    private long demand;
+    private long conflated;
+    private boolean draining;
+    private boolean drainAgain;
+    private boolean cancelled;
+    private boolean completed;
+    private Throwable error;
+    private boolean terminated;
+
+    ConflatingSubscription(final Flow.Subscriber<? super MarketData> subscriber,
+                           final Executor executor,
+                           final TopOfBookProcessor processor) {
+        this.subscriber = subscriber;
+        this.executor = executor;
+        this.processor = processor;
+    }
+
+    @Override
+    public void request(final long n) {
+        synchronized (this) {
+            if (n <= 0L) {
+                // rule 3.9: signal the error instead of the next quotes
+                error = new IllegalArgumentException("non-positive request: " + n);
+                pending.clear();
+            } else {
+                demand = demand + n < 0L ? Long.MAX_VALUE : demand + n;
+            }
+        }
+        scheduleDrain();
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (this) {
+            cancelled = true;
+            pending.clear();
+        }
+        processor.remove(this);
+    }
+
+    void offer(final MarketData marketData) {
+        synchronized (this) {
+            if (cancelled || completed || error != null) {
+                return;
+            }
+            if (pending.put(marketData.getSymbol(), marketData) != null) {
+                conflated++;
+            }
+        }
+        scheduleDrain();
+    }
+
+    void complete() {
+        synchronized (this) {
+            completed = true;
+        }
+        scheduleDrain();
+    }
+
+    synchronized long getConflated() {
+        return conflated;
+    }
+
+    synchronized int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * Signals {@code onSubscribe}, through the drain like every other signal so that none can overlap it.
+     */
+    void start() {
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        synchronized (this) {
+            if (draining) {
+                drainAgain = true;
+                return;
+            }
+            draining = true;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (final RejectedExecutionException e) {
+            synchronized (this) {
+                draining = false;
+                cancelled = true;
+                pending.clear();
+            }
+            processor.remove(this);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            MarketData next = null;
+            Throwable failure = null;
+            boolean done = false;
+            boolean subscribe = false;
+            synchronized (this) {
+                if (cancelled || terminated) {
+                    draining = false;
+                    return;
+                }
+                if (!subscribed) {
+                    subscribed = true;
+                    subscribe = true;
+                } else if (error != null) {
+                    failure = error;
+                    terminated = true;
+                } else if (demand > 0L && !pending.isEmpty()) {
+                    final Iterator<MarketData> oldest = pending.values().iterator();
+                    next = oldest.next();
+                    oldest.remove();
+                    demand--;
+                } else if (completed) {
+                    done = true;
+                    terminated = true;
+                } else if (drainAgain) {
+                    drainAgain = false;
+                    continue;
+                } else {
+                    draining = false;
+                    return;
+                }
+            }
+            if (subscribe) {
+                subscriber.onSubscribe(this);
+            } else if (failure != null) {
+                processor.remove(this);
+                subscriber.onError(failure);
+            } else if (done) {
+                processor.remove(this);
+                subscriber.onComplete();
+            } else {
+                subscriber.onNext(next);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.backstreetbrogrammer.streaming;
+
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming venue feed: publishes a tick for every symbol each {@code tickInterval}, with the price profile of the
+ * given venue.
+ * <p>
+ * A feed cannot slow down the market, so backpressure is by dropping: each subscriber gets a buffer of
+ * {@code bufferCapacity} ticks, filled while it has no outstanding demand, and ticks which do not fit are dropped
+ * for that subscriber and counted.
+ */
+public class TickPublisher implements Flow.Publisher<MarketData>, AutoCloseable {
+
+    private final SimulatedMarketDataSource profile;
+    private final List<String> symbols;
+    private final SubmissionPublisher<MarketData> publisher;
+    private final ScheduledFuture<?> ticker;
+
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public TickPublisher(final SimulatedMarketDataSource profile,
+                         final List<String> symbols,
+                         final Duration tickInterval,
+                         final int bufferCapacity,
+                         final Executor deliveryExecutor,
+                         final ScheduledExecutorService timer) {
+        this.profile = Objects.requireNonNull(profile, "profile");
+        this.symbols = List.copyOf(symbols);
+        this.publisher = new SubmissionPublisher<>(deliveryExecutor, bufferCapacity);
+        final long intervalNanos = tickInterval.toNanos();
+        this.ticker = timer.scheduleAtFixedRate(this::tick, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super MarketData> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    public String getName() {
+        return profile.getName();
+    }
+
+    public long getTicks() {
+        return ticks.sum();
+    }
+
+    /**
+     * Ticks dropped for subscribers without room left in their buffer, summed over subscribers.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        ticker.cancel(false);
+        publisher.close();
+    }
+
+    private void tick() {
+        for (final String symbol : symbols) {
+            ticks.increment();
+            publisher.offer(profile.quote(symbol), (subscriber, marketData) -> {
+                dropped.increment();
+                return false; // no retry: the next tick supersedes this one anyway
+            });
+        }
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.backstreetbrogrammer.streaming;
+
+import com.backstreetbrogrammer.model.Interner;
+import com.backstreetbrogrammer.model.MarketData;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consolidates streaming venue feeds into the best (lowest) price per symbol, maintained incrementally, and
+ * publishes only the changes: a new best venue, or a new price from the best venue.
+ * <p>
+ * Venue feeds are {@link #connect(Flow.Publisher) connected} with {@code upstreamBatch} of demand, replenished as
+ * ticks are consumed: the book update is cheap and never blocks, so venues are never throttled by a slow consumer.
+ * Downstream subscribers are served by {@link ConflatingSubscription}s instead: each one only gets as many quotes as
+ * it requests, and while it has no demand only the latest best price per symbol is kept. A new subscriber first
+ * receives the current best price of every symbol.
+ * <p>
+ * When a venue feed completes or fails, its quotes are dropped from every book, so the best price never stays pinned
+ * to a venue that is gone.
+ */
+public class TopOfBookProcessor implements Flow.Publisher<MarketData>, AutoCloseable {
+
+    private final Executor executor;
+    private final int upstreamBatch;
+
+    private final Map<String, Book> books = new ConcurrentHashMap<>();
+    private final List<ConflatingSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final List<Flow.Subscription> upstreams = new CopyOnWriteArrayList<>();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private volatile boolean closed;
+
+    public TopOfBookProcessor(final Executor executor, final int upstreamBatch) {
+        if (upstreamBatch < 2) {
+            throw new IllegalArgumentException("upstreamBatch must be at least 2 but was " + upstreamBatch);
+        }
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.upstreamBatch = upstreamBatch;
+    }
+
+    public void connect(final Flow.Publisher<? extends MarketData> venue) {
+        venue.subscribe(new VenueSubscriber());
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super MarketData> subscriber) {
+        final ConflatingSubscription subscription =
+                new ConflatingSubscription(Objects.requireNonNull(subscriber, "subscriber"), executor, this);
+        subscriptions.add(subscription);
+        subscription.start();
+        for (final Book book : books.values()) {
+            synchronized (book) {
+                if (book.best != null) {
+                    subscription.offer(book.best);
+                }
+            }
+        }
+        if (closed) {
+            subscription.complete();
+        }
+    }
+
+    public Optional<MarketData> bestPrice(final String symbol) {
+        final Book book = books.get(symbol);
+        if (book == null) {
+            return Optional.empty();
+        }
+        synchronized (book) {
+            return Optional.ofNullable(book.best);
+        }
+    }
+
+    /**
+     * Venue ticks consumed.
+     */
+    public long getReceived() {
+        return received.sum();
+    }
+
+    /**
+     * Best price changes published (before conflation).
+     */
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /**
+     * Quotes replaced by a newer one of the same symbol before a subscriber requested them, over all subscribers.
+     */
+    public long getConflated() {
+        return subscriptions.stream().mapToLong(ConflatingSubscription::getConflated).sum();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Disconnects from the venues and completes the subscribers.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        upstreams.forEach(Flow.Subscription::cancel);
+        upstreams.clear();
+        subscriptions.forEach(ConflatingSubscription::complete);
+    }
+
+    void remove(final ConflatingSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    private void onQuote(final MarketData marketData) {
+        received.increment();
+        final Book book = books.computeIfAbsent(marketData.getSymbol(), symbol -> new Book());
+        synchronized (book) {
+            // published under the book's lock, so that every subscriber sees the changes of a symbol in order
+            if (book.update(marketData)) {
+                published.increment();
+                for (final ConflatingSubscription subscription : subscriptions) {
+                    subscription.offer(book.best);
+                }
+            }
+        }
+    }
+
+    private void onVenueGone(final BitSet venues) {
+        for (final Book book : books.values()) {
+            synchronized (book) {
+                boolean changed = false;
+                for (int venue = venues.nextSetBit(0); venue >= 0; venue = venues.nextSetBit(venue + 1)) {
+                    changed |= book.remove(venue);
+                }
+                // with no venue left there is no best price to publish
+                if (changed && book.best != null) {
+                    published.increment();
+                    for (final ConflatingSubscription subscription : subscriptions) {
+                        subscription.offer(book.best);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Latest quote of every venue for one symbol, indexed by {@link Interner#servers()} id. Guarded by itself.
+     */
+    private static final class Book {
+
+        private MarketData[] quotes = new MarketData[4];
+        private MarketData best;
+
+        /**
+         * Returns true if the best price changed.
+         */
+        private boolean update(final MarketData marketData) {
+            final int venue = Interner.servers().intern(marketData.getServer());
+            if (venue >= quotes.length) {
+                quotes = Arrays.copyOf(quotes, Math.max(venue + 1, quotes.length * 2));
+            }
+            quotes[venue] = marketData;
+
+            if (best == null || marketData.getPrice() < best.getPrice()) {
+                best = marketData;
+                return true;
+            }
+            if (!best.getServer().equals(marketData.getServer())) {
+                return false; // another venue, not better
+            }
+            // the best venue moved: the best price may now be elsewhere
+            return reselect();
+        }
+
+        /**
+         * Drops the quote of a venue that went away. Returns true if the best price changed.
+         */
+        private boolean remove(final int venue) {
+            if (venue >= quotes.length || quotes[venue] == null) {
+                return false;
+            }
+            final MarketData removed = quotes[venue];
+            quotes[venue] = null;
+            return removed == best && reselect();
+        }
+
+        private boolean reselect() {
+            MarketData newBest = null;
+            for (final MarketData quote : quotes) {
+                if (quote != null && (newBest == null || quote.getPrice() < newBest.getPrice())) {
+                    newBest = quote;
+                }
+            }
+            final boolean changed = newBest == null || best == null || newBest.getPrice() != best.getPrice()
+                    || !newBest.getServer().equals(best.getServer());
+            best = newBest;
+            return changed;
+        }
+    }
+
+    private final class VenueSubscriber implements Flow.Subscriber<MarketData> {
+
+        private final int replenish = upstreamBatch / 2;
+        private final BitSet venues = new BitSet();
+        private Flow.Subscription subscription;
+        private int consumed;
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            if (this.subscription != null || closed) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            upstreams.add(subscription);
+            subscription.request(upstreamBatch);
+        }
+
+        @Override
+        public void onNext(final MarketData marketData) {
+            venues.set(Interner.servers().intern(marketData.getServer()));
+            onQuote(marketData);
+            if (++consumed == replenish) {
+                consumed = 0;
+                subscription.request(replenish);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            upstreams.remove(subscription);
+            onVenueGone(venues);
+        }
+
+        @Override
+        public void onComplete() {
+            upstreams.remove(subscription);
+            onVenueGone(venues);
+        }
+    }
+
+}
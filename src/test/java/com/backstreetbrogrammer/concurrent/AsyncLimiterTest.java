@@ -0,0 +1,67 @@
+package com.backstreetbrogrammer.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncLimiterTest {
+
+    @Test
+    void testQueuesBeyondPermitsAndHandsOverOnCompletion() {
+        final AsyncLimiter limiter = new AsyncLimiter(2);
+        final List<CompletableFuture<Integer>> tasks = new ArrayList<>();
+        final List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final CompletableFuture<Integer> task = new CompletableFuture<>();
+            tasks.add(task);
+            results.add(limiter.submit(() -> task));
+        }
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(3, limiter.getQueued());
+
+        tasks.get(0).complete(0);
+        assertEquals(0, results.get(0).join());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(2, limiter.getQueued());
+
+        for (int i = 1; i < 5; i++) {
+            tasks.get(i).complete(i);
+        }
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+        assertEquals(4, results.get(4).join());
+    }
+
+    @Test
+    void testSynchronousTasksDoNotRecurse() {
+        final AsyncLimiter limiter = new AsyncLimiter(1);
+        final CompletableFuture<Integer> blocker = new CompletableFuture<>();
+        limiter.submit(() -> blocker);
+
+        final List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            final int value = i;
+            results.add(limiter.submit(() -> CompletableFuture.completedFuture(value)));
+        }
+        blocker.complete(-1);
+
+        assertEquals(99_999, results.get(99_999).join());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testThrowingTaskReleasesPermit() {
+        final AsyncLimiter limiter = new AsyncLimiter(1);
+
+        final CompletableFuture<Integer> failed = limiter.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,110 @@
+package com.backstreetbrogrammer.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CircuitBreaker breaker = new CircuitBreaker("Venue", 3, Duration.ofSeconds(1L), 2, now::get);
+
+    @Test
+    void testOpensAfterConsecutiveFailuresAndFailsFast() {
+        fail();
+        fail();
+        succeed();
+        fail();
+        fail();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        final int before = calls.get();
+        final CompletionException e = assertThrows(CompletionException.class, () -> call(true).join());
+        assertTrue(e.getCause() instanceof CircuitOpenException);
+        assertEquals(before, calls.get());
+        assertEquals(1L, breaker.getRejected());
+    }
+
+    @Test
+    void testHalfOpenProbesOneAtATimeAndClosesAfterSuccessfulProbes() {
+        openCircuit();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1L));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        final CompletableFuture<String> probe = new CompletableFuture<>();
+        final CompletableFuture<String> admitted = breaker.call(() -> probe);
+        assertThrows(CompletionException.class, () -> call(true).join()); // second probe rejected meanwhile
+
+        probe.complete("ok");
+        assertEquals("ok", admitted.join());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        succeed();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testFailedProbeReopens() {
+        openCircuit();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1L));
+
+        fail();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999L));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testStaleAndCancelledOutcomesAreIgnored() {
+        final CompletableFuture<String> slow = new CompletableFuture<>();
+        breaker.call(() -> slow);
+        openCircuit();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1L));
+
+        final CompletableFuture<String> probe = new CompletableFuture<>();
+        breaker.call(() -> probe);
+        slow.completeExceptionally(new IllegalStateException("late failure from before the circuit opened"));
+        probe.cancel(true);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        succeed();
+        succeed();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void openCircuit() {
+        fail();
+        fail();
+        fail();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void succeed() {
+        call(true).join();
+    }
+
+    private void fail() {
+        assertThrows(CompletionException.class, () -> call(false).join());
+    }
+
+    private CompletableFuture<String> call(final boolean success) {
+        return breaker.call(() -> {
+            calls.incrementAndGet();
+            return success
+                    ? CompletableFuture.completedFuture("ok")
+                    : CompletableFuture.failedFuture(new IllegalStateException("down"));
+        });
+    }
+
+}
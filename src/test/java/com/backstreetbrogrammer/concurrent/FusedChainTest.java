@@ -0,0 +1,114 @@
+package com.backstreetbrogrammer.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FusedChainTest {
+
+    private ExecutorService io;
+    private ExecutorService cpu;
+
+    @BeforeEach
+    void setUp() {
+        io = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "io"));
+        cpu = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "cpu"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        io.shutdownNow();
+        cpu.shutdownNow();
+    }
+
+    @Test
+    void testCheapStagesAreFusedIntoOneStep() {
+        final FusedChain<Integer, String> chain = FusedChain.<Integer>builder()
+                                                            .cheap(i -> i + 1)
+                                                            .cheap(i -> i * 2)
+                                                            .cheap(String::valueOf)
+                                                            .build();
+
+        assertEquals(1, chain.getSegmentCount());
+        assertEquals(0, chain.getHopCount());
+        assertEquals("8", chain.apply(3).join());
+    }
+
+    @Test
+    void testHopsOnlyBeforeBlockingStagesOnAnotherExecutor() {
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        final FusedChain<Integer, Integer> chain = FusedChain.<Integer>builder()
+                                                             .cheap(i -> record(threads, i + 1))
+                                                             .blocking(i -> record(threads, i * 10), io)
+                                                             .cheap(i -> record(threads, i + 2))
+                                                             .blocking(i -> record(threads, i + 3), io)
+                                                             .blocking(i -> record(threads, i - 5), cpu)
+                                                             .cheap(i -> record(threads, i * 2))
+                                                             .build();
+
+        assertEquals(3, chain.getSegmentCount());
+        assertEquals(2, chain.getHopCount());
+
+        final CompletableFuture<Integer> input = new CompletableFuture<>();
+        final CompletableFuture<Integer> result = chain.apply(input);
+        input.complete(1);
+
+        assertEquals(40, result.join());
+        assertEquals(List.of(Thread.currentThread().getName(), "io", "io", "io", "cpu", "cpu"), threads);
+    }
+
+    @Test
+    void testFailurePropagatesAndSkipsRemainingStages() {
+        final List<String> threads = new CopyOnWriteArrayList<>();
+        final FusedChain<Integer, Integer> chain = FusedChain.<Integer>builder()
+                                                             .blocking(i -> {
+                                                                 throw new IllegalStateException("DB down");
+                                                             }, io)
+                                                             .cheap(i -> record(threads, (Integer) i))
+                                                             .build();
+
+        final CompletionException e = assertThrows(CompletionException.class,
+                                                   () -> chain.apply(1).orTimeout(5L, TimeUnit.SECONDS).join());
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertTrue(threads.isEmpty());
+    }
+
+    @Test
+    void testChainIsReusable() {
+        final FusedChain<Integer, Integer> chain = FusedChain.<Integer>builder()
+                                                             .blocking(i -> i * i, io)
+                                                             .cheap(i -> i + 1)
+                                                             .build();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i * i + 1, chain.apply(i).join());
+        }
+    }
+
+    @Test
+    void testBranchesDoNotShareSteps() {
+        final FusedChain.Builder<Integer, Integer> base = FusedChain.<Integer>builder().cheap(i -> i + 1);
+        final FusedChain<Integer, Integer> doubled = base.cheap(i -> i * 2).build();
+        final FusedChain<Integer, Integer> negated = base.cheap(i -> -i).build();
+
+        assertEquals(8, doubled.apply(3).join());
+        assertEquals(-4, negated.apply(3).join());
+        assertEquals(4, base.build().apply(3).join());
+    }
+
+    private static <T> T record(final List<String> threads, final T value) {
+        threads.add(Thread.currentThread().getName());
+        return value;
+    }
+
+}
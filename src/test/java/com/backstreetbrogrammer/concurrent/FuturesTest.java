@@ -0,0 +1,303 @@
+package com.backstreetbrogrammer.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FuturesTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testCancelInterruptsRunningTask() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CompletableFuture<String> future = Futures.supplyInterruptibly(() -> {
+            started.countDown();
+            try {
+                TimeUnit.SECONDS.sleep(30L);
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "too late";
+        }, executor);
+
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+        future.cancel(true);
+
+        assertTrue(interrupted.await(5L, TimeUnit.SECONDS));
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    void testInterruptDoesNotLeakIntoNextTask() throws InterruptedException {
+        final ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CompletableFuture<String> slow = Futures.supplyInterruptibly(() -> {
+                started.countDown();
+                TimeUnit.SECONDS.sleep(30L);
+                return "too late";
+            }, singleThread);
+            assertTrue(started.await(5L, TimeUnit.SECONDS));
+            slow.cancel(true);
+
+            final AtomicBoolean interruptedFlag = new AtomicBoolean(true);
+            Futures.supplyInterruptibly(() -> {
+                interruptedFlag.set(Thread.currentThread().isInterrupted());
+                return null;
+            }, singleThread).join();
+
+            assertFalse(interruptedFlag.get());
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFirstOfCancelsLosers() {
+        final CompletableFuture<String> slow = Futures.supplyInterruptibly(() -> {
+            TimeUnit.SECONDS.sleep(30L);
+            return "slow";
+        }, executor);
+        final CompletableFuture<String> fast = CompletableFuture.completedFuture("fast");
+
+        assertEquals("fast", Futures.firstOf(List.of(slow, fast)).join());
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    void testForeignInterruptIsRestored() {
+        // as if the pool were shut down now while the task sleeps: the task fails, and the worker stays interrupted
+        final CompletableFuture<String> future = Futures.supplyInterruptibly(() -> {
+            Thread.currentThread().interrupt();
+            TimeUnit.SECONDS.sleep(30L);
+            return "too late";
+        }, Runnable::run);
+
+        assertTrue(Thread.interrupted());
+        final CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertTrue(e.getCause() instanceof InterruptedException);
+    }
+
+    @Test
+    void testFirstOfSkipsFailures() {
+        final CompletableFuture<String> failed = CompletableFuture.failedFuture(new IllegalStateException("down"));
+        final CompletableFuture<String> late = new CompletableFuture<>();
+
+        final CompletableFuture<String> first = Futures.firstOf(List.of(failed, late));
+        assertFalse(first.isDone());
+
+        late.complete("late");
+        assertEquals("late", first.join());
+    }
+
+    @Test
+    void testFirstOfFailsWhenAllFail() {
+        final CompletableFuture<String> first =
+                Futures.firstOf(List.of(CompletableFuture.<String>failedFuture(new IllegalStateException("down"))));
+
+        final CompletionException e = assertThrows(CompletionException.class, first::join);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testAllOfKeepsInputOrder() {
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> second = new CompletableFuture<>();
+
+        final CompletableFuture<List<String>> all = Futures.allOf(List.of(first, second));
+        second.complete("second");
+        assertFalse(all.isDone());
+
+        first.complete("first");
+        assertEquals(List.of("first", "second"), all.join());
+        assertThrows(UnsupportedOperationException.class, () -> all.join().set(0, "changed"));
+    }
+
+    @Test
+    void testAllOfReducesOnce() {
+        final AtomicInteger reductions = new AtomicInteger();
+        final List<CompletableFuture<Integer>> inputs = List.of(CompletableFuture.supplyAsync(() -> 1, executor),
+                                                                CompletableFuture.supplyAsync(() -> 2, executor),
+                                                                CompletableFuture.completedFuture(3));
+
+        final CompletableFuture<Integer> sum = Futures.allOf(inputs, values -> {
+            reductions.incrementAndGet();
+            return values.stream().mapToInt(Integer::intValue).sum();
+        });
+
+        assertEquals(6, sum.join());
+        assertEquals(1, reductions.get());
+    }
+
+    @Test
+    void testAllOfFailsFast() {
+        final CompletableFuture<String> hung = new CompletableFuture<>();
+        final AtomicBoolean reduced = new AtomicBoolean();
+
+        final CompletableFuture<String> all = Futures.allOf(
+                List.of(hung, CompletableFuture.<String>failedFuture(new IllegalStateException("down"))),
+                values -> {
+                    reduced.set(true);
+                    return "reduced";
+                });
+
+        final CompletionException e = assertThrows(CompletionException.class, all::join);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        hung.complete("late");
+        assertFalse(reduced.get());
+    }
+
+    @Test
+    void testAllOfEmpty() {
+        assertEquals(List.of(), Futures.allOf(List.<CompletableFuture<String>>of()).join());
+    }
+
+    @Test
+    void testAllOfFailsWithReducerFailure() {
+        final CompletableFuture<String> all = Futures.allOf(List.of(CompletableFuture.completedFuture("a")),
+                                                            values -> {
+                                                                throw new IllegalArgumentException("bad");
+                                                            });
+
+        final CompletionException e = assertThrows(CompletionException.class, all::join);
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void testAllOfCancelCancelsInputs() {
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> second = new CompletableFuture<>();
+
+        final CompletableFuture<List<String>> all = Futures.allOf(List.of(first, second));
+
+        assertTrue(all.cancel(true));
+        assertTrue(first.isCancelled());
+        assertTrue(second.isCancelled());
+    }
+
+    @Test
+    void testAllOfCancelDuringReducer() throws InterruptedException {
+        final CountDownLatch reducing = new CountDownLatch(1);
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final CompletableFuture<String> input = new CompletableFuture<>();
+
+        final CompletableFuture<String> all = Futures.allOf(List.of(input), values -> {
+            reducing.countDown();
+            try {
+                cancelled.await(5L, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return values.get(0);
+        });
+        executor.execute(() -> input.complete("done"));
+
+        assertTrue(reducing.await(5L, TimeUnit.SECONDS));
+        assertTrue(all.cancel(true));
+        cancelled.countDown();
+        assertTrue(all.isCancelled());
+        assertEquals("done", input.join());
+    }
+
+    @Test
+    void testWithTimeoutFailsAndCancelsHungTask() throws InterruptedException {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CompletableFuture<String> hung = Futures.supplyInterruptibly(() -> {
+            try {
+                TimeUnit.SECONDS.sleep(30L);
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "too late";
+        }, executor);
+
+        final CompletableFuture<String> result = Futures.withTimeout(hung, Duration.ofMillis(50L));
+
+        final CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertTrue(interrupted.await(5L, TimeUnit.SECONDS));
+        assertTrue(hung.isCancelled());
+    }
+
+    @Test
+    void testWithTimeoutPassesThroughFastResult() {
+        assertEquals("fast", Futures.withTimeout(CompletableFuture.completedFuture("fast"), Duration.ofMillis(1L))
+                                    .join());
+    }
+
+    @Test
+    void testRetryUntilSuccess() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final RetryBudget budget = new RetryBudget(0D, 5);
+
+        final CompletableFuture<String> result = Futures.retry(() -> attempts.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(new IllegalStateException("flaky"))
+                : CompletableFuture.completedFuture("ok"), 3, budget);
+
+        assertEquals("ok", result.join());
+        assertEquals(3, attempts.get());
+        assertEquals(2L, budget.getRetries());
+    }
+
+    @Test
+    void testRetryStopsWhenBudgetIsSpent() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final RetryBudget budget = new RetryBudget(0.5D, 1);
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(CompletionException.class,
+                         () -> Futures.retry(() -> {
+                             attempts.incrementAndGet();
+                             return CompletableFuture.failedFuture(new IllegalStateException("down"));
+                         }, 3, budget).join());
+        }
+
+        // 10 first attempts, and retries paid by the initial token plus 0.5 per request
+        assertEquals(10L + budget.getRetries(), attempts.get());
+        assertTrue(budget.getRetries() <= 6L);
+        assertTrue(budget.getDenied() > 0L);
+    }
+
+    @Test
+    void testRetrySkipsNonRetryableFailures() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final CompletableFuture<String> result = Futures.retry(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("circuit open"));
+        }, 3, new RetryBudget(1D, 10), throwable -> !(throwable instanceof RejectedExecutionException));
+
+        final CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,72 @@
+package com.backstreetbrogrammer.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ManagedBlockingTest {
+
+    @Test
+    void testPoolCompensatesForManagedBlocking() throws Exception {
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            final List<CompletableFuture<Boolean>> blocked = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                blocked.add(ManagedBlocking.supplyAsync(() -> release.await(5L, TimeUnit.SECONDS), pool));
+            }
+            // without compensation this waits behind the blocked tasks
+            assertEquals(42, pool.submit(() -> 42).get(1L, TimeUnit.SECONDS));
+            assertTrue(pool.getPoolSize() > 1);
+
+            release.countDown();
+            for (final CompletableFuture<Boolean> future : blocked) {
+                assertTrue(future.get(1L, TimeUnit.SECONDS));
+            }
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRunsOnOtherThreadsAndPropagatesFailures() {
+        assertDoesNotThrow(() -> assertEquals("done", ManagedBlocking.call(() -> "done")));
+        assertThrows(IOException.class, () -> ManagedBlocking.call(() -> {
+            throw new IOException("venue down");
+        }));
+        assertEquals(0, ManagedBlocking.getBlocked());
+
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> ManagedBlocking.supplyAsync(() -> {
+            throw new IOException("venue down");
+        }, ForkJoinPool.commonPool()).get(1L, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IOException);
+    }
+
+    @Test
+    void testCancelInterruptsBlockedTask() throws InterruptedException {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CompletableFuture<Object> future = ManagedBlocking.supplyAsync(() -> {
+            try {
+                TimeUnit.SECONDS.sleep(10L);
+                return null;
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        }, ForkJoinPool.commonPool());
+        TimeUnit.MILLISECONDS.sleep(50L);
+        future.cancel(true);
+        assertTrue(interrupted.await(1L, TimeUnit.SECONDS));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.backstreetbrogrammer.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelMergeSortTest {
+
+    private final Random random = new Random(42L);
+    private ExecutorService executor;
+    private ParallelMergeSort sorter;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        sorter = new ParallelMergeSort(executor, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSortsSmallArraysInPlace() {
+        final int[] array = new int[]{2, 29, 3, 0, 11, 8, 32, 94, 9, 1, 7};
+
+        assertSame(array, sorter.sort(array).join());
+        assertArrayEquals(new int[]{0, 1, 2, 3, 7, 8, 9, 11, 29, 32, 94}, array);
+        assertEquals(0, sorter.sort(new int[0]).join().length);
+    }
+
+    @Test
+    void testSortsLargeArraysWithUnevenChunks() {
+        for (final int length : new int[]{ParallelMergeSort.SEQUENTIAL_THRESHOLD * 3 + 17, 1_000_003}) {
+            final int[] array = random.ints(length).toArray();
+            final int[] expected = array.clone();
+            Arrays.sort(expected);
+
+            assertSame(array, sorter.sort(array).join());
+            assertArrayEquals(expected, array);
+        }
+    }
+
+    @Test
+    void testSortsDuplicatesAndExtremes() {
+        final int[] array = new int[500_000];
+        for (int i = 0; i < array.length; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    array[i] = Integer.MIN_VALUE;
+                    break;
+                case 1:
+                    array[i] = Integer.MAX_VALUE;
+                    break;
+                default:
+                    array[i] = random.nextInt(10) - 5;
+            }
+        }
+        final int[] expected = array.clone();
+        Arrays.sort(expected);
+
+        assertArrayEquals(expected, sorter.sort(array).join());
+    }
+
+    @Test
+    void testSortsAlreadySortedAndReversedArrays() {
+        final int[] sorted = new int[300_000];
+        Arrays.setAll(sorted, i -> i);
+        final int[] reversed = new int[sorted.length];
+        Arrays.setAll(reversed, i -> sorted.length - 1 - i);
+
+        assertArrayEquals(sorted, sorter.sort(sorted.clone()).join());
+        assertArrayEquals(sorted, sorter.sort(reversed).join());
+    }
+
+    @Test
+    void testCoRank() {
+        final int[] source = new int[]{1, 3, 5, 7, 2, 4, 6, 8};
+
+        assertEquals(0, ParallelMergeSort.coRank(0, source, 0, 4, 4, 4));
+        assertEquals(1, ParallelMergeSort.coRank(2, source, 0, 4, 4, 4));
+        assertEquals(2, ParallelMergeSort.coRank(4, source, 0, 4, 4, 4));
+        assertEquals(4, ParallelMergeSort.coRank(8, source, 0, 4, 4, 4));
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.backstreetbrogrammer.executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncExecutorsTest {
+
+    private AsyncExecutors executors;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        executors = new AsyncExecutors(new PoolConfig(1, 1, RejectionPolicy.ABORT),
+                                       new PoolConfig(1, 1, RejectionPolicy.CALLER_RUNS));
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executors.shutdown(Duration.ofSeconds(1L));
+    }
+
+    @Test
+    void testAbortPolicyRejectsWhenQueueIsFull() throws InterruptedException {
+        final ManagedExecutor io = executors.io();
+        final CountDownLatch started = new CountDownLatch(1);
+        io.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+        io.execute(this::awaitRelease);
+
+        assertThrows(RejectedExecutionException.class, () -> io.execute(this::awaitRelease));
+
+        final ExecutorMetrics metrics = executors.metrics().get(AsyncExecutors.IO);
+        assertEquals(1, metrics.getActiveThreads());
+        assertEquals(1, metrics.getQueueDepth());
+        assertEquals(1L, metrics.getRejectedTasks());
+    }
+
+    @Test
+    void testCallerRunsPolicyThrottlesProducer() throws InterruptedException {
+        final ManagedExecutor cpu = executors.cpu();
+        final CountDownLatch started = new CountDownLatch(1);
+        cpu.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+        cpu.execute(this::awaitRelease);
+
+        final AtomicReference<Thread> ranOn = new AtomicReference<>();
+        cpu.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), ranOn.get());
+        assertEquals(1L, cpu.metrics().getCallerRunsTasks());
+    }
+
+    @Test
+    void testNamedThreadsAndGracefulShutdown() throws InterruptedException {
+        final AtomicReference<String> threadName = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        executors.io().execute(() -> {
+            threadName.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        assertEquals("io-1", threadName.get());
+
+        assertTrue(executors.shutdown(Duration.ofSeconds(1L)));
+        assertTrue(executors.io().isTerminated());
+        assertThrows(RejectedExecutionException.class, () -> executors.io().execute(() -> { }));
+    }
+
+    @Test
+    void testUnknownExecutor() {
+        assertThrows(IllegalArgumentException.class, () -> executors.get("db"));
+        assertSame(executors.register("db", new PoolConfig(1, 1, RejectionPolicy.BLOCK)), executors.get("db"));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.backstreetbrogrammer.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ForkJoinPoolMonitorTest {
+
+    @Test
+    void testDetectsStallOfUnmanagedBlocking() throws InterruptedException {
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        final List<PoolSaturation> reports = new CopyOnWriteArrayList<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        try (final ForkJoinPoolMonitor monitor = new ForkJoinPoolMonitor("test", pool, Duration.ofMillis(5L),
+                                                                          Duration.ofMillis(50L), scheduler,
+                                                                          reports::add)) {
+            TimeUnit.MILLISECONDS.sleep(20L);
+            assertEquals(0L, monitor.getStalls());
+
+            // the only worker sleeps without telling the pool
+            pool.execute(() -> {
+                try {
+                    release.await(5L, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            awaitTrue(monitor::isStalled);
+            assertEquals(1L, monitor.getStalls());
+            final PoolSaturation stall = reports.get(0);
+            assertTrue(stall.isStalled());
+            assertTrue(stall.getStallNanos() >= TimeUnit.MILLISECONDS.toNanos(50L));
+            assertEquals(1, stall.getParallelism());
+
+            release.countDown();
+            awaitTrue(() -> !monitor.isStalled());
+            assertEquals(2, reports.size());
+            assertFalse(reports.get(1).isStalled());
+            assertTrue(monitor.getLongestStallNanos() >= TimeUnit.MILLISECONDS.toNanos(50L));
+        } finally {
+            release.countDown();
+            scheduler.shutdownNow();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRejectsNonPositiveDurations() {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            assertThrows(IllegalArgumentException.class,
+                         () -> new ForkJoinPoolMonitor("test", ForkJoinPool.commonPool(), Duration.ZERO,
+                                                       Duration.ofMillis(50L), scheduler, saturation -> { }));
+            assertThrows(IllegalArgumentException.class,
+                         () -> new ForkJoinPoolMonitor("test", ForkJoinPool.commonPool(), Duration.ofMillis(5L),
+                                                       Duration.ofMillis(-1L), scheduler, saturation -> { }));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static void awaitTrue(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            TimeUnit.MILLISECONDS.sleep(5L);
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.backstreetbrogrammer.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadsTest {
+
+    @Test
+    void testFactoryMatchesSupport() throws Exception {
+        if (VirtualThreads.isSupported()) {
+            final ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+            try {
+                final Object isVirtual = executor.submit(() -> Thread.class.getMethod("isVirtual")
+                                                                           .invoke(Thread.currentThread()))
+                                                 .get(5L, TimeUnit.SECONDS);
+                assertEquals(Boolean.TRUE, isVirtual);
+            } finally {
+                executor.shutdown();
+            }
+        } else {
+            assertThrows(UnsupportedOperationException.class, VirtualThreads::newVirtualThreadPerTaskExecutor);
+        }
+    }
+
+    @Test
+    void testBlockingExecutorFallsBackToIoPool() throws Exception {
+        try (final AsyncExecutors executors = new AsyncExecutors()) {
+            final ExecutorService blocking = executors.blocking();
+            if (VirtualThreads.isSupported()) {
+                assertNotSame(executors.io(), blocking);
+            } else {
+                assertSame(executors.io(), blocking);
+            }
+            assertEquals("done", blocking.submit(() -> "done").get(5L, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.backstreetbrogrammer.journal;
+
+import com.backstreetbrogrammer.model.Interner;
+import com.backstreetbrogrammer.model.MarketData;
+import com.backstreetbrogrammer.model.Quote;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuoteJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testAppendAndReplayAcrossSegments() throws IOException {
+        try (QuoteJournal journal = open(FsyncPolicy.NONE)) {
+            for (int i = 0; i < 25; i++) {
+                assertEquals(i + 1L, journal.append(i % 2 == 0 ? "Reuters" : "Bloomberg", "META", 40D + i, i));
+            }
+            assertEquals(3, journal.getSegmentCount());
+            assertEquals(25L, journal.getLastSequence());
+
+            final List<String> replayed = new ArrayList<>();
+            assertEquals(25L, journal.replay(1L, record -> replayed.add(record.getSequence() + ":"
+                                                                        + record.getServer() + ":"
+                                                                        + record.getPrice())));
+            assertEquals("1:Reuters:40.0", replayed.get(0));
+            assertEquals("25:Reuters:64.0", replayed.get(24));
+
+            final List<Long> tail = new ArrayList<>();
+            assertEquals(3L, journal.replay(12L, record -> tail.add(record.getSequence()) && tail.size() < 3));
+            assertEquals(List.of(12L, 13L, 14L), tail);
+        }
+    }
+
+    @Test
+    void testReopenRecoversRecordsAndNames() throws IOException {
+        try (QuoteJournal journal = open(FsyncPolicy.SYNC)) {
+            journal.append(List.of(new MarketData("Reuters", "META", 50D),
+                                   new MarketData("Exegy", "AAPL", 60D)));
+            for (int i = 0; i < 10; i++) {
+                journal.append("Bloomberg", "MSFT", 70D + i, i);
+            }
+            assertEquals(12L, journal.getDurableSequence());
+        }
+
+        try (QuoteJournal journal = open(FsyncPolicy.NONE)) {
+            assertEquals(12L, journal.getLastSequence());
+            assertEquals(13L, journal.append("Reuters", "META", 51D, 100L));
+
+            final List<MarketData> all = new ArrayList<>();
+            journal.replay(1L, record -> all.add(record.toMarketData()));
+            assertEquals(13, all.size());
+            assertEquals("Exegy", all.get(1).getServer());
+            assertEquals("AAPL", all.get(1).getSymbol());
+            assertEquals(51D, all.get(12).getPrice());
+        }
+    }
+
+    @Test
+    void testScanBySymbolAndTimeRange() throws IOException {
+        try (QuoteJournal journal = open(FsyncPolicy.NONE)) {
+            for (int i = 0; i < 100; i++) {
+                journal.append("Reuters", i % 4 == 0 ? "META" : "AAPL", i, i * 10L);
+            }
+            // a segment holding only AAPL is skipped by its index
+            for (int i = 0; i < 10; i++) {
+                journal.append("Reuters", "AAPL", i, 2_000L + i);
+            }
+
+            final List<Double> prices = new ArrayList<>();
+            assertEquals(5L, journal.scan("META", 200L, 400L, record -> prices.add(record.getPrice())));
+            assertEquals(List.of(20D, 24D, 28D, 32D, 36D), prices);
+
+            assertEquals(10L, journal.scan("AAPL", 2_000L, Long.MAX_VALUE, record -> true));
+            assertEquals(0L, journal.scan("TSLA", 0L, Long.MAX_VALUE, record -> true));
+        }
+    }
+
+    @Test
+    void testQuotesTranslateIdsBothWays() throws IOException {
+        final int reuters = Interner.servers().intern("Reuters");
+        final int meta = Interner.symbols().intern("META");
+        try (QuoteJournal journal = open(FsyncPolicy.NONE)) {
+            journal.append(new Quote().set(reuters, meta, 42D, 7L));
+
+            final Quote replayed = new Quote();
+            journal.replay(1L, record -> record.toQuote(replayed) != null);
+            assertEquals(reuters, replayed.getServerId());
+            assertEquals(meta, replayed.getSymbolId());
+            assertEquals(42D, replayed.getPrice());
+            assertEquals(7L, replayed.getTimestampNanos());
+        }
+    }
+
+    @Test
+    void testAsyncFsyncAdvancesDurableSequence() throws IOException, InterruptedException {
+        try (QuoteJournal journal = QuoteJournal.open(directory, 10, FsyncPolicy.ASYNC, Duration.ofMillis(5L),
+                                                      scheduler)) {
+            for (int i = 0; i < 15; i++) {
+                journal.append("Reuters", "META", i, i);
+            }
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+            while (journal.getDurableSequence() < 15L && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(5L);
+            }
+            assertEquals(15L, journal.getDurableSequence());
+        }
+    }
+
+    @Test
+    void testConcurrentAppendsHaveNoGaps() throws IOException, InterruptedException {
+        try (QuoteJournal journal = open(FsyncPolicy.NONE)) {
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 4; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        journal.append("Reuters", "META", i, i);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+
+            final long[] expected = {1L};
+            assertEquals(4_000L, journal.replay(1L, record -> record.getSequence() == expected[0]++));
+        }
+    }
+
+    @Test
+    void testExplicitSyncForcesEverySegmentWithoutFsyncPolicy() throws IOException {
+        try (QuoteJournal journal = open(FsyncPolicy.NONE)) {
+            for (int i = 0; i < 25; i++) {
+                journal.append("Reuters", "META", i, i);
+            }
+            assertEquals(3, journal.getSegmentCount());
+            assertEquals(2, journal.getUnsyncedSegments());
+            assertEquals(0L, journal.getDurableSequence());
+
+            journal.sync();
+            assertEquals(0, journal.getUnsyncedSegments());
+            assertEquals(25L, journal.getDurableSequence());
+        }
+    }
+
+    @Test
+    void testBatchesAreTimestampedOnTheJournalClock() throws IOException {
+        try (QuoteJournal journal = open(FsyncPolicy.NONE)) {
+            final long before = QuoteJournal.nowNanos();
+            journal.append("Reuters", "META", 50D, before);
+            journal.append(List.of(new MarketData("Reuters", "META", 51D)));
+            final long after = QuoteJournal.nowNanos();
+
+            assertEquals(2L, journal.scan("META", before, after + 1L, record -> true));
+            assertTrue(Math.abs(before - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()))
+                               < TimeUnit.SECONDS.toNanos(1L));
+        }
+    }
+
+    @Test
+    void testRejectsAppendsWhenClosed() throws IOException {
+        final QuoteJournal journal = open(FsyncPolicy.NONE);
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.append("Reuters", "META", 1D, 1L));
+        assertThrows(IllegalStateException.class, () -> journal.replay(1L, record -> true));
+        journal.sync(); // nothing left to force
+        assertThrows(IllegalArgumentException.class,
+                     () -> QuoteJournal.open(directory, 0, FsyncPolicy.NONE, Duration.ZERO, scheduler));
+    }
+
+    private QuoteJournal open(final FsyncPolicy policy) throws IOException {
+        return QuoteJournal.open(directory, 10, policy, Duration.ofMillis(5L), scheduler);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.backstreetbrogrammer.loadtest;
+
+import com.backstreetbrogrammer.metrics.HistogramSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenLoopLoadGeneratorTest {
+
+    @Test
+    void testSendsAtTargetRate() {
+        final OpenLoopLoadGenerator generator =
+                new OpenLoopLoadGenerator(2_000D, Duration.ofMillis(100L), Duration.ofSeconds(1L));
+        final LoadReport report = generator.run("immediate", () -> CompletableFuture.completedFuture("quote"));
+        assertEquals(200L, report.getSent());
+        assertEquals(200L, report.getSucceeded());
+        assertEquals(0L, report.getIncomplete());
+        assertEquals(2_000D, report.getAchievedRate(), 20D);
+    }
+
+    @Test
+    void testCorrectsCoordinatedOmission() {
+        // a synchronous client: each request holds the sender for 5 ms, while one is due every 1 ms
+        final OpenLoopLoadGenerator generator =
+                new OpenLoopLoadGenerator(1_000D, Duration.ofMillis(50L), Duration.ofSeconds(1L));
+        final LoadReport report = generator.run("blocking", () -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(5L);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return CompletableFuture.completedFuture("quote");
+        });
+        assertEquals(50L, report.getSucceeded());
+        // each request took about 5 ms, but the last one was sent about 200 ms late
+        assertTrue(report.getServiceTime().getP50() < TimeUnit.MILLISECONDS.toNanos(20L));
+        assertTrue(report.getLatency().getMax() > TimeUnit.MILLISECONDS.toNanos(150L), report.toString());
+        assertTrue(report.getAchievedRate() < 500D);
+    }
+
+    @Test
+    void testCancelsIncompleteRequests() {
+        final List<CompletableFuture<String>> requests = new ArrayList<>();
+        final OpenLoopLoadGenerator generator =
+                new OpenLoopLoadGenerator(100D, Duration.ofMillis(100L), Duration.ofMillis(20L));
+        final LoadReport report = generator.run("hung", () -> {
+            final CompletableFuture<String> request = new CompletableFuture<>();
+            requests.add(request);
+            return request;
+        });
+        assertEquals(10L, report.getSent());
+        assertEquals(10L, report.getIncomplete());
+        assertEquals(0L, report.getSucceeded() + report.getFailed());
+        assertEquals(10L, report.getLatency().getCount());
+        assertTrue(report.getLatency().getP50() >= TimeUnit.MILLISECONDS.toNanos(19L));
+        assertTrue(requests.stream().allMatch(CompletableFuture::isCancelled));
+    }
+
+    @Test
+    void testCapacityTestStopsAtSaturation() {
+        final CapacityTest capacityTest = new CapacityTest(100D, 2D, 400D, Duration.ofMillis(100L),
+                                                           Duration.ofMillis(50L), 0.01D);
+        final CapacityResult unsaturated =
+                capacityTest.run("immediate", () -> CompletableFuture.completedFuture("quote"));
+        assertEquals(400D, unsaturated.getSustainableRate());
+        assertEquals(3, unsaturated.getSteps().size());
+        assertNull(unsaturated.getSaturationReason());
+
+        final CapacityResult failing = capacityTest.run("failing", () -> CompletableFuture.failedFuture(
+                new IllegalStateException("venue down")));
+        assertEquals(0D, failing.getSustainableRate());
+        assertEquals("10 of 10 requests failed or incomplete", failing.getSaturationReason());
+    }
+
+    @Test
+    void testSaturationReasons() {
+        final CapacityTest capacityTest = new CapacityTest(100D, 2D, 400D, Duration.ofSeconds(1L),
+                                                           Duration.ofMillis(50L), 0.01D);
+        final HistogramSnapshot fast = new HistogramSnapshot(100L, 1e6D, 2_000_000L, 1_000_000L, 1_000_000L,
+                                                             2_000_000L, 2_000_000L);
+        final HistogramSnapshot slow = new HistogramSnapshot(100L, 1e7D, 90_000_000L, 1_000_000L, 1_000_000L,
+                                                             80_000_000L, 90_000_000L);
+        assertNull(capacityTest.saturationReason(new LoadReport("ok", 100D, 100L, 100L, 0L, 0L, 100D, fast, fast)));
+        assertEquals("achieved 50.0/s of 100/s", capacityTest.saturationReason(
+                new LoadReport("behind", 100D, 100L, 100L, 0L, 0L, 50D, fast, fast)));
+        assertEquals("p99 80.0ms over 50ms", capacityTest.saturationReason(
+                new LoadReport("slow", 100D, 100L, 100L, 0L, 0L, 100D, slow, fast)));
+    }
+
+}
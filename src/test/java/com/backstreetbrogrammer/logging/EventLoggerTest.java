@@ -0,0 +1,159 @@
+package com.backstreetbrogrammer.logging;
+
+import com.backstreetbrogrammer.model.Database;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventLoggerTest {
+
+    @Test
+    void testFormatsEventsInOrder() {
+        final StringWriter sink = new StringWriter();
+        final EventLogger logger = new EventLogger(8, OverflowPolicy.BLOCK, sink, "test-logger");
+        final int written = logger.register("Written {} rows at {} to [{}]");
+        final int done = logger.register("done");
+
+        logger.event(written).arg(3).arg(42.5D).arg(new Database("Oracle", "MarketData-Meta")).commit();
+        logger.event(written).arg(7L).commit(); // missing arguments are left as placeholders
+        logger.log(done);
+        logger.close();
+
+        final String separator = System.lineSeparator();
+        assertEquals("Written 3 rows at 42.5 to [Database{databaseName='Oracle', tableName='MarketData-Meta'}]"
+                             + separator + "Written 7 rows at {} to [{}]" + separator + "done" + separator,
+                     sink.toString());
+        assertEquals(3L, logger.getWritten());
+        assertEquals(0L, logger.getDropped());
+    }
+
+    @Test
+    void testBlockPolicyLosesNothingUnderContention() throws InterruptedException {
+        final StringWriter sink = new StringWriter();
+        final EventLogger logger = new EventLogger(4, OverflowPolicy.BLOCK, sink, "test-logger");
+        final int template = logger.register("{} {}");
+        final int threads = 4;
+        final int events = 5_000;
+
+        final List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int producer = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < events; i++) {
+                    logger.event(template).arg(producer).arg(i).commit();
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+        logger.close();
+
+        assertEquals((long) threads * events, logger.getWritten());
+        final int[] next = new int[threads];
+        for (final String line : sink.toString().split(System.lineSeparator())) {
+            final String[] fields = line.split(" ");
+            final int producer = Integer.parseInt(fields[0]);
+            assertEquals(next[producer]++, Integer.parseInt(fields[1]), "out of order: " + line);
+        }
+    }
+
+    @Test
+    void testCloseWritesOrDropsEveryEvent() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            final EventLogger logger = new EventLogger(64, OverflowPolicy.BLOCK, new StringWriter(), "test-logger");
+            final int template = logger.register("{}");
+            final int threads = 4;
+            final int events = 2_000;
+            final CountDownLatch started = new CountDownLatch(threads);
+
+            final List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                producers.add(new Thread(() -> {
+                    started.countDown();
+                    for (int i = 0; i < events; i++) {
+                        logger.event(template).arg(i).commit();
+                    }
+                }));
+            }
+            producers.forEach(Thread::start);
+            started.await();
+            logger.close(); // races with the producers
+            for (final Thread producer : producers) {
+                producer.join();
+            }
+
+            assertEquals((long) threads * events, logger.getWritten() + logger.getDropped());
+        }
+    }
+
+    @Test
+    void testDropPolicyDropsWhenSinkIsSlow() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final StringWriter sink = new StringWriter() {
+            @Override
+            public void write(final char[] chars, final int offset, final int length) {
+                try {
+                    release.await(5L, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(chars, offset, length);
+            }
+        };
+        final EventLogger logger = new EventLogger(4, OverflowPolicy.DROP, sink, "test-logger");
+        final int template = logger.register("{}");
+        for (int i = 0; i < 100; i++) {
+            logger.event(template).arg(i).commit();
+        }
+        assertTrue(logger.getDropped() > 0L);
+
+        release.countDown();
+        logger.close();
+        assertEquals(100L, logger.getWritten() + logger.getDropped());
+
+        logger.event(template).arg(100).commit();
+        assertEquals(101L, logger.getWritten() + logger.getDropped());
+    }
+
+    @Test
+    void testCountsWriteErrors() {
+        final EventLogger logger = new EventLogger(4, OverflowPolicy.BLOCK, new Writer() {
+            @Override
+            public void write(final char[] chars, final int offset, final int length) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        }, "test-logger");
+        logger.log(logger.register("lost"));
+        logger.close();
+        assertEquals(1L, logger.getWriteErrors());
+    }
+
+    @Test
+    void testRejectsBadTemplates() {
+        final EventLogger logger = new EventLogger(4, OverflowPolicy.DROP, new StringWriter(), "test-logger");
+        assertThrows(IllegalArgumentException.class, () -> logger.event(0));
+        assertThrows(IllegalArgumentException.class, () -> logger.register("{}{}{}{}{}{}{}{}{}"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new EventLogger(6, OverflowPolicy.DROP, new StringWriter(), "test-logger"));
+        logger.close();
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BestPriceConsolidatorTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testBestPriceIsMinimumAcrossAllSources() {
+        final BestPriceConsolidator consolidator =
+                new BestPriceConsolidator(executor)
+                        .register(fixed("Reuters", 50D))
+                        .register(fixed("Bloomberg", 42D))
+                        .register(fixed("Exegy", 61D))
+                        .register(fixed("Refinitiv", 47D));
+
+        final MarketData bestMarketData = consolidator.bestPrice("META").join();
+
+        assertEquals("Bloomberg", bestMarketData.getServer());
+        assertEquals("META", bestMarketData.getSymbol());
+        assertEquals(42D, bestMarketData.getPrice());
+    }
+
+    @Test
+    void testSimulatedSourcesRunOnCallerSuppliedExecutor() {
+        final BestPriceConsolidator consolidator = new BestPriceConsolidator(executor);
+        SimulatedMarketDataSource.venues().forEach(consolidator::register);
+
+        final MarketData bestMarketData = consolidator.bestPrice("META").join();
+
+        assertEquals("META", bestMarketData.getSymbol());
+        assertTrue(bestMarketData.getPrice() >= 30D && bestMarketData.getPrice() < 80D);
+    }
+
+    @Test
+    void testNoSourcesRegistered() {
+        final BestPriceConsolidator consolidator = new BestPriceConsolidator(executor);
+
+        final CompletionException e = assertThrows(CompletionException.class,
+                                                   () -> consolidator.bestPrice("META").join());
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testQuorumDoesNotWaitForSlowestSource() {
+        final BestPriceConsolidator consolidator =
+                new BestPriceConsolidator(executor)
+                        .register(fixed("Reuters", 50D))
+                        .register(hung("Bloomberg"))
+                        .register(fixed("Exegy", 61D));
+
+        final QuorumResult result = consolidator.bestPrice("META", 2, Duration.ofSeconds(10L)).join();
+
+        assertTrue(result.isQuorumReached());
+        assertFalse(result.isComplete());
+        assertEquals(50D, result.getBestMarketData().orElseThrow().getPrice());
+        assertEquals(List.of("Reuters", "Exegy"), result.getRespondedSources());
+        assertEquals(List.of("Bloomberg"), result.getMissingSources());
+    }
+
+    @Test
+    void testDeadlineCutsResultWithoutQuorum() {
+        final BestPriceConsolidator consolidator =
+                new BestPriceConsolidator(executor)
+                        .register(hung("Reuters"))
+                        .register(fixed("Bloomberg", 42D))
+                        .register(failing("Exegy"));
+
+        final QuorumResult result = consolidator.bestPrice("META", 2, Duration.ofMillis(50L)).join();
+
+        assertFalse(result.isQuorumReached());
+        assertEquals(42D, result.getBestMarketData().orElseThrow().getPrice());
+        assertEquals(List.of("Reuters"), result.getMissingSources());
+        assertEquals(List.of("Exegy"), result.getFailedSources());
+    }
+
+    @Test
+    void testInvalidQuorum() {
+        final BestPriceConsolidator consolidator = new BestPriceConsolidator(executor).register(fixed("Reuters", 1D));
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> consolidator.bestPrice("META", 2, Duration.ofMillis(50L)));
+    }
+
+    private static MarketDataSource fixed(final String name, final double price) {
+        return new MarketDataSource() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public CompletableFuture<MarketData> fetch(final String symbol, final Executor e) {
+                return CompletableFuture.supplyAsync(() -> new MarketData(name, symbol, price), e);
+            }
+        };
+    }
+
+    private static MarketDataSource hung(final String name) {
+        return source(name, new CompletableFuture<>());
+    }
+
+    private static MarketDataSource failing(final String name) {
+        return source(name, CompletableFuture.failedFuture(new IllegalStateException(name + " is down")));
+    }
+
+    private static MarketDataSource source(final String name, final CompletableFuture<MarketData> future) {
+        return new MarketDataSource() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public CompletableFuture<MarketData> fetch(final String symbol, final Executor e) {
+                return future;
+            }
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BestPriceTrackerTest {
+
+    @Test
+    void testTracksImprovementsInCompletionOrder() {
+        final CompletableFuture<MarketData> cfReuters = new CompletableFuture<>();
+        final CompletableFuture<MarketData> cfBloomberg = new CompletableFuture<>();
+        final CompletableFuture<MarketData> cfExegy = new CompletableFuture<>();
+
+        final List<Double> improvements = new CopyOnWriteArrayList<>();
+        final BestPriceTracker tracker =
+                BestPriceTracker.track(List.of(cfReuters, cfBloomberg, cfExegy))
+                                .subscribe(marketData -> improvements.add(marketData.getPrice()));
+
+        assertTrue(tracker.current().isEmpty());
+
+        cfExegy.complete(new MarketData("Exegy", "META", 55D));
+        assertEquals(55D, tracker.current().orElseThrow().getPrice());
+
+        cfReuters.complete(new MarketData("Reuters", "META", 60D));
+        assertEquals(55D, tracker.current().orElseThrow().getPrice());
+        assertFalse(tracker.result().isDone());
+
+        cfBloomberg.complete(new MarketData("Bloomberg", "META", 41D));
+        assertTrue(tracker.result().isDone());
+        assertEquals("Bloomberg", tracker.result().join().getServer());
+        assertEquals(List.of(55D, 41D), improvements);
+    }
+
+    @Test
+    void testLateSubscriberReceivesCurrentBest() {
+        final BestPriceTracker tracker =
+                BestPriceTracker.track(List.of(CompletableFuture.completedFuture(new MarketData("Exegy", "META", 50D))));
+
+        final List<Double> improvements = new CopyOnWriteArrayList<>();
+        tracker.subscribe(marketData -> improvements.add(marketData.getPrice()));
+
+        assertEquals(List.of(50D), improvements);
+    }
+
+    @Test
+    void testThrowingListenerDoesNotStopOthersOrResult() {
+        final CompletableFuture<MarketData> cfReuters = new CompletableFuture<>();
+        final CompletableFuture<MarketData> cfExegy = new CompletableFuture<>();
+        final List<Double> improvements = new CopyOnWriteArrayList<>();
+        final BestPriceTracker tracker =
+                BestPriceTracker.track(List.of(cfReuters, cfExegy))
+                                .subscribe(marketData -> {
+                                    throw new IllegalStateException("broken listener");
+                                })
+                                .subscribe(marketData -> improvements.add(marketData.getPrice()));
+
+        cfReuters.complete(new MarketData("Reuters", "META", 60D));
+        cfExegy.complete(new MarketData("Exegy", "META", 50D));
+
+        assertEquals(List.of(60D, 50D), improvements);
+        assertEquals("Exegy", tracker.result().join().getServer());
+    }
+
+    @Test
+    void testFailedQuotesAreSkipped() {
+        final BestPriceTracker tracker =
+                BestPriceTracker.track(List.of(
+                        CompletableFuture.failedFuture(new IllegalStateException("Reuters is down")),
+                        CompletableFuture.completedFuture(new MarketData("Exegy", "META", 50D))));
+
+        assertEquals(50D, tracker.result().join().getPrice());
+    }
+
+    @Test
+    void testFailsWhenAllQuotesFail() {
+        final BestPriceTracker tracker =
+                BestPriceTracker.track(List.of(
+                        CompletableFuture.<MarketData>failedFuture(new IllegalStateException("Reuters is down"))));
+
+        final CompletionException e = assertThrows(CompletionException.class, () -> tracker.result().join());
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+}
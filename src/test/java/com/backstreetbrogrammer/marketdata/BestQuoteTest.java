@@ -0,0 +1,79 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.Interner;
+import com.backstreetbrogrammer.model.Quote;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BestQuoteTest {
+
+    @Test
+    void testKeepsLowestPrice() {
+        final BestQuote best = new BestQuote();
+        assertTrue(best.isEmpty());
+        assertFalse(best.copyTo(new Quote()));
+
+        assertTrue(best.offer(new Quote().set(1, 7, 50D, 1L)));
+        assertFalse(best.offer(new Quote().set(2, 7, 55D, 2L)));
+        assertTrue(best.offer(new Quote().set(3, 7, 41D, 3L)));
+        assertFalse(best.offer(new Quote().set(4, 7, 41D, 4L)));
+
+        final Quote into = new Quote();
+        assertTrue(best.copyTo(into));
+        assertEquals(3, into.getServerId());
+        assertEquals(41D, into.getPrice());
+        assertEquals(4, best.getOffers());
+
+        best.reset();
+        assertTrue(best.isEmpty());
+    }
+
+    @Test
+    void testIndexOfBest() {
+        assertEquals(-1, BestQuote.indexOfBest(new double[0], 0));
+        assertEquals(2, BestQuote.indexOfBest(new double[]{3D, 2D, 1D, 0D}, 3));
+    }
+
+    @Test
+    void testPoolReusesQuotes() {
+        final QuotePool pool = new QuotePool(2);
+        final Quote first = pool.acquire();
+        final Quote second = pool.acquire();
+        final Quote third = pool.acquire();
+        assertEquals(1L, pool.getCreated());
+
+        first.set(1, 1, 1D, 1L);
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+        assertEquals(1L, pool.getDropped());
+
+        final Quote reused = pool.acquire();
+        assertTrue(reused == first || reused == second);
+        assertTrue(reused.isEmpty());
+    }
+
+    @Test
+    void testSimulatedVenuesFillPooledQuotes() {
+        final List<SimulatedMarketDataSource> venues = SimulatedMarketDataSource.venues();
+        final int meta = Interner.symbols().intern("META");
+        final QuotePool pool = new QuotePool(4);
+        final BestQuote best = new BestQuote();
+
+        for (final SimulatedMarketDataSource venue : venues) {
+            final Quote quote = venue.quote(meta, System.nanoTime(), pool.acquire());
+            assertEquals(venue.getId(), quote.getServerId());
+            best.offer(quote);
+            pool.release(quote);
+        }
+
+        final Quote result = new Quote();
+        assertTrue(best.copyTo(result));
+        assertEquals("META", result.toMarketData().getSymbol());
+        assertEquals(0L, pool.getCreated());
+    }
+
+}
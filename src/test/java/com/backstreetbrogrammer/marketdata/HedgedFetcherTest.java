@@ -0,0 +1,171 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgedFetcherTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testLearnsToSendToFastestVenue() {
+        final ScriptedSource slow = new ScriptedSource("Slow", 50D, 40L);
+        final ScriptedSource fast = new ScriptedSource("Fast", 60D, 2L);
+        final HedgedFetcher fetcher = new HedgedFetcher(List.of(slow, fast), 1, Duration.ofSeconds(1L), 0D,
+                                                        executor, scheduler);
+
+        for (int i = 0; i < 2 * HedgedFetcher.MIN_SAMPLES; i++) {
+            join(fetcher.bestPrice("META"));
+        }
+        assertEquals(List.of("Fast", "Slow"), fetcher.getRanking());
+
+        final int slowCalls = slow.calls.get();
+        assertEquals("Fast", join(fetcher.bestPrice("META")).getServer());
+        assertEquals(slowCalls, slow.calls.get());
+        assertEquals(0L, fetcher.getHedges());
+    }
+
+    @Test
+    void testHedgesWhenVenueExceedsItsP95() {
+        final ScriptedSource primary = new ScriptedSource("Primary", 50D, 2L);
+        final ScriptedSource backup = new ScriptedSource("Backup", 60D, 5L);
+        final HedgedFetcher fetcher = new HedgedFetcher(List.of(primary, backup), 1, Duration.ofMillis(100L), 1D,
+                                                        executor, scheduler);
+        for (int i = 0; i < 2 * HedgedFetcher.MIN_SAMPLES; i++) {
+            join(fetcher.bestPrice("META"));
+        }
+        assertEquals("Primary", fetcher.getRanking().get(0));
+
+        primary.latencyMillis = -1L; // hangs
+        final long start = System.nanoTime();
+        final MarketData marketData = join(fetcher.bestPrice("META"));
+
+        assertEquals("Backup", marketData.getServer());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1L));
+        assertTrue(fetcher.getHedges() >= 1L);
+    }
+
+    @Test
+    void testFailedVenueIsReplacedByHedge() {
+        final ScriptedSource broken = new ScriptedSource("Broken", 10D, 1L);
+        broken.fail = true;
+        final ScriptedSource healthy = new ScriptedSource("Healthy", 60D, 1L);
+        final HedgedFetcher fetcher = new HedgedFetcher(List.of(broken, healthy), 1, Duration.ofSeconds(1L), 1D,
+                                                        executor, scheduler);
+
+        assertEquals("Healthy", join(fetcher.bestPrice("META")).getServer());
+        assertEquals(1L, fetcher.getHedges());
+    }
+
+    @Test
+    void testFailsWhenNoVenueAnswersAndBudgetIsEmpty() {
+        final ScriptedSource broken = new ScriptedSource("Broken", 10D, 1L);
+        broken.fail = true;
+        final ScriptedSource healthy = new ScriptedSource("Healthy", 60D, 1L);
+        final HedgedFetcher fetcher = new HedgedFetcher(List.of(broken, healthy), 1, Duration.ofSeconds(1L), 0D,
+                                                        executor, scheduler);
+
+        final CompletableFuture<MarketData> result = fetcher.bestPrice("META").orTimeout(5L, TimeUnit.SECONDS);
+        assertThrows(Exception.class, result::join);
+        assertEquals(0, healthy.calls.get());
+        assertEquals(1L, fetcher.getHedgesDenied());
+    }
+
+    @Test
+    void testHedgeLoadIsBounded() {
+        final ScriptedSource sluggish = new ScriptedSource("Sluggish", 50D, 20L);
+        final ScriptedSource other = new ScriptedSource("Other", 60D, 20L);
+        final ScriptedSource third = new ScriptedSource("Third", 70D, 20L);
+        final HedgedFetcher fetcher = new HedgedFetcher(List.of(sluggish, other, third), 1, Duration.ofMillis(1L),
+                                                        0.25D, executor, scheduler);
+
+        for (int i = 0; i < 40; i++) {
+            join(fetcher.bestPrice("META"));
+        }
+
+        assertEquals(40L, fetcher.getPrimaries());
+        assertTrue(fetcher.getHedges() <= 10L, "hedges: " + fetcher.getHedges());
+        assertTrue(fetcher.getHedgesDenied() > 0L);
+        assertEquals(40L + fetcher.getHedges(), sluggish.calls.get() + other.calls.get() + third.calls.get());
+    }
+
+    @Test
+    void testBestOfFanOut() {
+        final ScriptedSource cheap = new ScriptedSource("Cheap", 40D, 1L);
+        final ScriptedSource dear = new ScriptedSource("Dear", 80D, 1L);
+        final ScriptedSource unused = new ScriptedSource("Unused", 10D, 1L);
+        final HedgedFetcher fetcher = new HedgedFetcher(List.of(cheap, dear, unused), 2, Duration.ofSeconds(1L), 0D,
+                                                        executor, scheduler);
+
+        assertEquals(40D, join(fetcher.bestPrice("META")).getPrice());
+        assertEquals(0, unused.calls.get());
+    }
+
+    private static MarketData join(final CompletableFuture<MarketData> future) {
+        return future.orTimeout(5L, TimeUnit.SECONDS).join();
+    }
+
+    private static class ScriptedSource implements MarketDataSource {
+
+        private final String name;
+        private final double price;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile long latencyMillis;
+        private volatile boolean fail;
+
+        private ScriptedSource(final String name, final double price, final long latencyMillis) {
+            this.name = name;
+            this.price = price;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public CompletableFuture<MarketData> fetch(final String symbol, final Executor executor) {
+            calls.incrementAndGet();
+            final CompletableFuture<MarketData> future = new CompletableFuture<>();
+            if (latencyMillis >= 0L) {
+                CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS, executor).execute(() -> {
+                    if (fail) {
+                        future.completeExceptionally(new IllegalStateException(name + " is down"));
+                    } else {
+                        future.complete(new MarketData(name, symbol, price));
+                    }
+                });
+            }
+            return future;
+        }
+    }
+
+}
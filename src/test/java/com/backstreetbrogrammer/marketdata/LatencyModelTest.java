@@ -0,0 +1,81 @@
+package com.backstreetbrogrammer.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyModelTest {
+
+    private static final int SAMPLES = 20_000;
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void testUniformAndFixed() {
+        final long[] samples = sample(LatencyModel.uniform(Duration.ofMillis(80L), Duration.ofMillis(120L)));
+        assertTrue(samples[0] >= 80L * MILLIS);
+        assertTrue(samples[SAMPLES - 1] < 120L * MILLIS);
+        assertEquals(100L * MILLIS, samples[SAMPLES / 2], 2L * MILLIS);
+
+        assertEquals(5L * MILLIS, LatencyModel.fixed(Duration.ofMillis(5L)).nextLatencyNanos(new Random()));
+    }
+
+    @Test
+    void testLogNormalHasMedianAndLongTail() {
+        final long[] samples = sample(LatencyModel.logNormal(Duration.ofMillis(10L), 0.5D));
+        assertEquals(10L * MILLIS, samples[SAMPLES / 2], MILLIS);
+        // p99 = median * exp(0.5 * 2.326)
+        assertEquals(32L * MILLIS, samples[SAMPLES * 99 / 100], 3L * MILLIS);
+    }
+
+    @Test
+    void testBimodalAndStalls() {
+        final LatencyModel model = LatencyModel.bimodal(LatencyModel.fixed(Duration.ofMillis(1L)),
+                                                        LatencyModel.fixed(Duration.ofMillis(50L)), 0.1D)
+                                               .withStalls(0.01D, Duration.ofSeconds(2L));
+        final long[] samples = sample(model);
+        final long slow = Arrays.stream(samples).filter(nanos -> nanos >= 50L * MILLIS).count();
+        final long stalled = Arrays.stream(samples).filter(nanos -> nanos >= 2_000L * MILLIS).count();
+        assertEquals(0.1D + 0.01D * 0.9D, (double) slow / SAMPLES, 0.01D);
+        assertEquals(0.01D, (double) stalled / SAMPLES, 0.003D);
+        assertTrue(model.toString().startsWith("bimodal(fixed(1ms), fixed(50ms), 0.1).withStalls("));
+    }
+
+    @Test
+    void testRejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> LatencyModel.uniform(Duration.ofMillis(10L), Duration.ofMillis(10L)));
+        assertThrows(IllegalArgumentException.class, () -> LatencyModel.logNormal(Duration.ofMillis(10L), -1D));
+        assertThrows(IllegalArgumentException.class, () -> LatencyModel.fixed(Duration.ofMillis(1L))
+                                                                       .withStalls(1.5D, Duration.ofSeconds(1L)));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new SimulatedMarketDataSource("Venue", 1D, 2D, LatencyModel.fixed(Duration.ZERO), 2D));
+    }
+
+    @Test
+    void testVenueErrorRate() throws InterruptedException {
+        final SimulatedMarketDataSource failing =
+                new SimulatedMarketDataSource("Failing", 1D, 2D, LatencyModel.fixed(Duration.ZERO), 1D);
+        assertThrows(IllegalStateException.class, () -> failing.get("META"));
+
+        final SimulatedMarketDataSource healthy =
+                new SimulatedMarketDataSource("Healthy", 1D, 2D, LatencyModel.fixed(Duration.ZERO), 0D);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Healthy", healthy.get("META").getServer());
+        }
+    }
+
+    private static long[] sample(final LatencyModel model) {
+        final Random random = new Random(42L);
+        final long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = model.nextLatencyNanos(random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+}
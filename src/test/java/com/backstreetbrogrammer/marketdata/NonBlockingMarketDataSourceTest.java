@@ -0,0 +1,64 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NonBlockingMarketDataSourceTest {
+
+    private ScheduledThreadPoolExecutor timer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        timer = NonBlockingMarketDataSource.newTimer("test-timer");
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testManyInFlightQuotesOnTwoThreads() {
+        final NonBlockingMarketDataSource source =
+                new NonBlockingMarketDataSource(SimulatedMarketDataSource.reuters(), timer);
+
+        final List<CompletableFuture<MarketData>> futures = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            futures.add(source.fetch("META", executor));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).orTimeout(10L, TimeUnit.SECONDS).join();
+        for (final CompletableFuture<MarketData> future : futures) {
+            final MarketData marketData = future.join();
+            assertEquals("Reuters", marketData.getServer());
+            assertTrue(marketData.getPrice() >= 40D && marketData.getPrice() < 60D);
+        }
+    }
+
+    @Test
+    void testCancelRemovesTimerEntry() {
+        final NonBlockingMarketDataSource source =
+                new NonBlockingMarketDataSource(new SimulatedMarketDataSource("Slow", 1D, 2D, 60_000L, 60_001L), timer);
+
+        final CompletableFuture<MarketData> future = source.fetch("META", executor);
+        assertEquals(1, timer.getQueue().size());
+
+        future.cancel(true);
+        assertEquals(0, timer.getQueue().size());
+    }
+}
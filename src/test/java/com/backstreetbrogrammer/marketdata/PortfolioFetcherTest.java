@@ -0,0 +1,155 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PortfolioFetcherTest {
+
+    private ExecutorService executor;
+    private final AtomicInteger globalInFlight = new AtomicInteger();
+    private final AtomicInteger maxGlobalInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testStreamsBestPricePerSymbolWithinLimits() {
+        final CountingSource reuters = new CountingSource(new SimulatedMarketDataSource("Reuters", 40D, 60D, 1L, 2L));
+        final CountingSource bloomberg =
+                new CountingSource(new SimulatedMarketDataSource("Bloomberg", 30D, 70D, 1L, 2L));
+        final CountingSource exegy = new CountingSource(new SimulatedMarketDataSource("Exegy", 40D, 80D, 1L, 2L));
+
+        final PortfolioFetcher fetcher = new PortfolioFetcher(List.of(reuters, bloomberg, exegy), executor,
+                                                              8, 4, Map.of("Exegy", 1));
+
+        final List<String> symbols = IntStream.range(0, 500)
+                                              .mapToObj(i -> "SYM" + i)
+                                              .collect(Collectors.toList());
+        final Map<String, MarketData> bestPrices = new ConcurrentHashMap<>();
+        fetcher.fetch(symbols, bestMarketData -> bestPrices.put(bestMarketData.getSymbol(), bestMarketData))
+               .orTimeout(30L, TimeUnit.SECONDS)
+               .join();
+
+        assertEquals(Set.copyOf(symbols), bestPrices.keySet());
+        assertTrue(maxGlobalInFlight.get() <= 8);
+        assertTrue(reuters.maxInFlight.get() <= 4);
+        assertTrue(bloomberg.maxInFlight.get() <= 4);
+        assertEquals(1, exegy.maxInFlight.get());
+        assertEquals(500, exegy.requests.get());
+    }
+
+    @Test
+    void testReportsSymbolsWithoutAnyQuote() {
+        final MarketDataSource down = new MarketDataSource() {
+            @Override
+            public String getName() {
+                return "Down";
+            }
+
+            @Override
+            public CompletableFuture<MarketData> fetch(final String symbol, final Executor e) {
+                return CompletableFuture.failedFuture(new IllegalStateException("down"));
+            }
+        };
+        final PortfolioFetcher fetcher = new PortfolioFetcher(List.of(down), executor, 2, 2);
+
+        final Set<String> failed = ConcurrentHashMap.newKeySet();
+        fetcher.fetch(List.of("META", "AAPL"), new PortfolioFetcher.Listener() {
+            @Override
+            public void onBestPrice(final MarketData bestMarketData) {
+                fail("unexpected quote " + bestMarketData);
+            }
+
+            @Override
+            public void onFailure(final String symbol, final Throwable throwable) {
+                failed.add(symbol);
+            }
+        }).orTimeout(5L, TimeUnit.SECONDS).join();
+
+        assertEquals(Set.of("META", "AAPL"), failed);
+    }
+
+    @Test
+    void testEmptyPortfolio() {
+        final PortfolioFetcher fetcher =
+                new PortfolioFetcher(List.of(SimulatedMarketDataSource.reuters()), executor, 2, 2);
+
+        assertTrue(fetcher.fetch(List.of(), bestMarketData -> fail("no symbols")).isDone());
+    }
+
+    @Test
+    void testSynchronousSourceDoesNotRecurse() {
+        final MarketDataSource cached = new MarketDataSource() {
+            @Override
+            public String getName() {
+                return "Cache";
+            }
+
+            @Override
+            public CompletableFuture<MarketData> fetch(final String symbol, final Executor e) {
+                return CompletableFuture.completedFuture(new MarketData("Cache", symbol, 42D));
+            }
+        };
+        final PortfolioFetcher fetcher = new PortfolioFetcher(List.of(cached, cached), Runnable::run, 8, 8);
+        final AtomicInteger priced = new AtomicInteger();
+
+        fetcher.fetch(IntStream.range(0, 100_000).mapToObj(i -> "SYM" + i).collect(Collectors.toList()),
+                      bestMarketData -> priced.incrementAndGet())
+               .orTimeout(10L, TimeUnit.SECONDS)
+               .join();
+
+        assertEquals(100_000, priced.get());
+    }
+
+    private final class CountingSource implements MarketDataSource {
+
+        private final MarketDataSource delegate;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger requests = new AtomicInteger();
+
+        private CountingSource(final MarketDataSource delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public CompletableFuture<MarketData> fetch(final String symbol, final Executor e) {
+            requests.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            maxGlobalInFlight.accumulateAndGet(globalInFlight.incrementAndGet(), Math::max);
+            return delegate.fetch(symbol, e).whenComplete((marketData, throwable) -> {
+                globalInFlight.decrementAndGet();
+                inFlight.decrementAndGet();
+            });
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.model.MarketData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuoteCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Executor direct = Runnable::run;
+
+    @Test
+    void testConcurrentMissesShareOneRequest() {
+        final ManualSource source = new ManualSource("Reuters");
+        final QuoteCache cache = new QuoteCache(Duration.ofSeconds(1L), Duration.ZERO, 100, clock::get);
+        final MarketDataSource cached = cache.wrap(source);
+
+        final CompletableFuture<MarketData> first = cached.fetch("META", direct);
+        final CompletableFuture<MarketData> second = cached.fetch("META", direct);
+        assertEquals(1, source.requests.size());
+
+        source.requests.get(0).complete(new MarketData("Reuters", "META", 50D));
+
+        assertEquals(50D, first.join().getPrice());
+        assertEquals(50D, second.join().getPrice());
+        assertEquals(1L, cache.getMisses());
+        assertEquals(1L, cache.getCoalesced());
+    }
+
+    @Test
+    void testCancellingOneCallerDoesNotPoisonTheCache() {
+        final ManualSource source = new ManualSource("Reuters");
+        final QuoteCache cache = new QuoteCache(Duration.ofSeconds(1L), Duration.ZERO, 100, clock::get);
+
+        final CompletableFuture<MarketData> first = cache.get(source, "META", direct);
+        final CompletableFuture<MarketData> second = cache.get(source, "META", direct);
+        first.cancel(true);
+        source.requests.get(0).complete(new MarketData("Reuters", "META", 50D));
+
+        assertEquals(50D, second.join().getPrice());
+        assertEquals(50D, cache.get(source, "META", direct).join().getPrice());
+    }
+
+    @Test
+    void testExpiresAfterTtl() {
+        final ManualSource source = new ManualSource("Reuters");
+        final QuoteCache cache = new QuoteCache(Duration.ofMillis(100L), Duration.ZERO, 100, clock::get);
+
+        cache.get(source, "META", direct);
+        source.requests.get(0).complete(new MarketData("Reuters", "META", 50D));
+
+        clock.set(Duration.ofMillis(99L).toNanos());
+        assertEquals(50D, cache.get(source, "META", direct).join().getPrice());
+        assertEquals(1L, cache.getHits());
+
+        clock.set(Duration.ofMillis(100L).toNanos());
+        final CompletableFuture<MarketData> reloaded = cache.get(source, "META", direct);
+        assertEquals(2, source.requests.size());
+        source.requests.get(1).complete(new MarketData("Reuters", "META", 51D));
+        assertEquals(51D, reloaded.join().getPrice());
+    }
+
+    @Test
+    void testRefreshAheadServesCachedQuoteWhileReloading() {
+        final ManualSource source = new ManualSource("Reuters");
+        final QuoteCache cache =
+                new QuoteCache(Duration.ofMillis(100L), Duration.ofMillis(20L), 100, clock::get);
+
+        cache.get(source, "META", direct);
+        source.requests.get(0).complete(new MarketData("Reuters", "META", 50D));
+
+        clock.set(Duration.ofMillis(85L).toNanos());
+        assertEquals(50D, cache.get(source, "META", direct).join().getPrice());
+        assertEquals(50D, cache.get(source, "META", direct).join().getPrice());
+        assertEquals(2, source.requests.size());
+        assertEquals(1L, cache.getRefreshes());
+
+        source.requests.get(1).complete(new MarketData("Reuters", "META", 49D));
+        clock.set(Duration.ofMillis(150L).toNanos());
+        assertEquals(49D, cache.get(source, "META", direct).join().getPrice());
+        assertEquals(2, source.requests.size());
+    }
+
+    @Test
+    void testFailuresAreNotCached() {
+        final ManualSource source = new ManualSource("Reuters");
+        final QuoteCache cache = new QuoteCache(Duration.ofSeconds(1L), Duration.ZERO, 100, clock::get);
+
+        final CompletableFuture<MarketData> failed = cache.get(source, "META", direct);
+        source.requests.get(0).completeExceptionally(new IllegalStateException("down"));
+        assertTrue(failed.isCompletedExceptionally());
+
+        cache.get(source, "META", direct);
+        assertEquals(2, source.requests.size());
+    }
+
+    @Test
+    void testEvictsOldestWhenFull() {
+        final ManualSource source = new ManualSource("Reuters");
+        final QuoteCache cache = new QuoteCache(Duration.ofSeconds(1L), Duration.ZERO, 2, clock::get);
+
+        cache.get(source, "META", direct);
+        cache.get(source, "AAPL", direct);
+        cache.get(source, "MSFT", direct);
+        source.requests.forEach(request -> request.complete(new MarketData("Reuters", "X", 1D)));
+
+        assertEquals(2, cache.size());
+        assertEquals(1L, cache.getEvictions());
+
+        cache.get(source, "META", direct);
+        assertEquals(4, source.requests.size());
+    }
+
+    private static final class ManualSource implements MarketDataSource {
+
+        private final String name;
+        private final List<CompletableFuture<MarketData>> requests = new ArrayList<>();
+
+        private ManualSource(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public CompletableFuture<MarketData> fetch(final String symbol, final Executor executor) {
+            final CompletableFuture<MarketData> request = new CompletableFuture<>();
+            requests.add(request);
+            return request;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.backstreetbrogrammer.marketdata;
+
+import com.backstreetbrogrammer.concurrent.CircuitBreaker;
+import com.backstreetbrogrammer.concurrent.CircuitOpenException;
+import com.backstreetbrogrammer.concurrent.RetryBudget;
+import com.backstreetbrogrammer.model.MarketData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResilientMarketDataSourceTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testHungVenueTimesOutThenIsShed() {
+        final SimulatedMarketDataSource hung = new SimulatedMarketDataSource("Hung", 40D, 80D, 60_000L, 60_001L);
+        final CountingSource counting = new CountingSource(hung);
+        final ResilientMarketDataSource source =
+                new ResilientMarketDataSource(counting, Duration.ofMillis(20L), 2, new RetryBudget(1D, 10),
+                                              new CircuitBreaker("Hung", 2, Duration.ofSeconds(30L), 1));
+
+        final CompletionException e = assertThrows(CompletionException.class, () -> join(source.fetch("META", executor)));
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertEquals(2, counting.calls.get()); // the retry timed out as well and opened the circuit
+        assertEquals(CircuitBreaker.State.OPEN, source.getCircuitBreaker().getState());
+
+        final long start = System.nanoTime();
+        final CompletionException rejected =
+                assertThrows(CompletionException.class, () -> join(source.fetch("META", executor)));
+        assertTrue(rejected.getCause() instanceof CircuitOpenException);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(20L));
+        assertEquals(2, counting.calls.get());
+    }
+
+    @Test
+    void testHealthyVenueIsUnaffected() {
+        final ResilientMarketDataSource source =
+                new ResilientMarketDataSource(new SimulatedMarketDataSource("Fast", 40D, 80D, 1L, 2L),
+                                              Duration.ofSeconds(1L), 2, RetryBudget.none(),
+                                              new CircuitBreaker("Fast", 2, Duration.ofSeconds(30L), 1));
+
+        final MarketData marketData = join(source.fetch("META", executor));
+        assertEquals("Fast", marketData.getServer());
+        assertEquals(CircuitBreaker.State.CLOSED, source.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void testRetriesWhenExecutorIsSaturated() {
+        final CountingSource counting = new CountingSource(new SimulatedMarketDataSource("Fast", 40D, 80D, 1L, 2L));
+        final ResilientMarketDataSource source =
+                new ResilientMarketDataSource(counting, Duration.ofSeconds(1L), 2, new RetryBudget(1D, 10),
+                                              new CircuitBreaker("Fast", 2, Duration.ofSeconds(30L), 1));
+        final AtomicInteger submissions = new AtomicInteger();
+        final Executor saturatedOnce = task -> {
+            if (submissions.getAndIncrement() == 0) {
+                throw new RejectedExecutionException("queue full");
+            }
+            executor.execute(task);
+        };
+
+        assertEquals("Fast", join(source.fetch("META", saturatedOnce)).getServer());
+        assertEquals(2, counting.calls.get());
+    }
+
+    private static MarketData join(final CompletableFuture<MarketData> future) {
+        return future.orTimeout(5L, TimeUnit.SECONDS).join();
+    }
+
+    private static class CountingSource implements MarketDataSource {
+
+        private final MarketDataSource delegate;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private CountingSource(final MarketDataSource delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public CompletableFuture<MarketData> fetch(final String symbol, final Executor executor) {
+            calls.incrementAndGet();
+            return delegate.fetch(symbol, executor);
+        }
+    }
+
+}
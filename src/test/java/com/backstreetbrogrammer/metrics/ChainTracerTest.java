@@ -0,0 +1,62 @@
+package com.backstreetbrogrammer.metrics;
+
+import com.backstreetbrogrammer.executor.AsyncExecutors;
+import com.backstreetbrogrammer.executor.PoolConfig;
+import com.backstreetbrogrammer.executor.RejectionPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChainTracerTest {
+
+    private AsyncExecutors executors;
+
+    @BeforeEach
+    void setUp() {
+        executors = new AsyncExecutors(new PoolConfig(2, 100, RejectionPolicy.ABORT),
+                                       new PoolConfig(2, 100, RejectionPolicy.ABORT));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.shutdown(Duration.ofSeconds(1L));
+    }
+
+    @Test
+    void testRecordsExecutorsAndThreadHopsPerStage() {
+        final ChainTracer tracer = new ChainTracer();
+        for (int i = 0; i < 50; i++) {
+            final ChainTracer.Trace trace = tracer.newTrace();
+            CompletableFuture.supplyAsync(trace.supplier("greet", () -> "Hello Students"), executors.io())
+                             .thenApply(trace.function("length", String::length))
+                             .thenApplyAsync(trace.function("double", length -> length * 2), executors.cpu())
+                             .thenAccept(trace.consumer("check", value -> assertEquals(28, value)))
+                             .join();
+        }
+
+        final TraceSnapshot snapshot = tracer.snapshot();
+        assertEquals(50L, snapshot.getStage("greet").getInvocations());
+        assertEquals(50L, snapshot.getStage("greet").getThreadHops());
+        assertEquals(50L, snapshot.getStage("greet").getExecutors().get("io"));
+        assertEquals(50L, snapshot.getStage("double").getThreadHops());
+        assertEquals(50L, snapshot.getStage("double").getExecutors().get("cpu"));
+        // a non-async stage runs on the completing cpu thread, or on the caller if the future is already complete
+        final TraceSnapshot.Stage check = snapshot.getStage("check");
+        assertEquals(50L - check.getExecutors().getOrDefault("cpu", 0L), check.getThreadHops());
+        assertTrue(snapshot.getStage("double").getQueueWait().getMax() > 0L);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getStage("missing"));
+    }
+
+    @Test
+    void testExecutorLabel() {
+        assertEquals("io", ChainTracer.executorOf(new Thread(() -> { }, "io-12")));
+        assertEquals("ForkJoinPool.commonPool-worker", ChainTracer.executorOf(
+                new Thread(() -> { }, "ForkJoinPool.commonPool-worker-3")));
+        assertEquals("main", ChainTracer.executorOf(new Thread(() -> { }, "main")));
+    }
+}
@@ -0,0 +1,55 @@
+package com.backstreetbrogrammer.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1L; micros <= 10_000L; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+
+        final HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(10_000L, snapshot.getCount());
+        assertEquals(10_000_000L, snapshot.getMax());
+        assertEquals(5_000_500D, snapshot.getMean(), 1D);
+        assertWithinPrecision(5_000_000L, snapshot.getP50());
+        assertWithinPrecision(9_900_000L, snapshot.getP99());
+        assertWithinPrecision(9_990_000L, snapshot.getP999());
+        assertWithinPrecision(9_500_000L, histogram.percentile(0.95D));
+        assertEquals(snapshot.getP99(), histogram.percentile(0.99D));
+    }
+
+    @Test
+    void testBucketBoundaries() {
+        for (long value = 0L; value < 1_000_000L; value += 7L) {
+            final int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValueAt(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    void testEmptyAndReset() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.snapshot().getP99());
+
+        histogram.record(42L);
+        histogram.record(-1L);
+        assertEquals(2L, histogram.getCount());
+        assertEquals(42L, histogram.snapshot().getMax());
+
+        histogram.reset();
+        assertEquals(0L, histogram.snapshot().getCount());
+    }
+
+    private static void assertWithinPrecision(final long expected, final long actual) {
+        assertEquals(expected, actual, expected / (double) LatencyHistogram.SUB_BUCKETS);
+    }
+}
@@ -0,0 +1,68 @@
+package com.backstreetbrogrammer.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuoteTest {
+
+    @Test
+    void testInternerAssignsDenseStableIds() {
+        final Interner interner = new Interner();
+
+        assertEquals(-1, interner.idOf("META"));
+        assertEquals(0, interner.intern("META"));
+        assertEquals(1, interner.intern("AAPL"));
+        assertEquals(0, interner.intern(new String("META")));
+        assertEquals("AAPL", interner.name(1));
+        assertEquals(2, interner.size());
+        assertThrows(IllegalArgumentException.class, () -> interner.name(2));
+    }
+
+    @Test
+    void testConcurrentInterningGivesOneIdPerName() throws InterruptedException {
+        final Interner interner = new Interner();
+        final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int t = 0; t < 4; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        final int id = interner.intern("SYM" + i);
+                        assertEquals("SYM" + i, interner.name(id));
+                        ids.add(id);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1_000, interner.size());
+        assertEquals(1_000, ids.size());
+    }
+
+    @Test
+    void testRoundTripThroughMarketData() {
+        final MarketData marketData = new MarketData("Reuters", "META", 42.5D);
+
+        final Quote quote = Quote.from(marketData, 123L);
+        assertEquals(Interner.servers().intern("Reuters"), quote.getServerId());
+        assertEquals(123L, quote.getTimestampNanos());
+
+        final MarketData back = quote.toMarketData();
+        assertEquals("Reuters", back.getServer());
+        assertEquals("META", back.getSymbol());
+        assertEquals(42.5D, back.getPrice());
+
+        assertTrue(new Quote().copyFrom(quote).clear().isEmpty());
+    }
+
+}
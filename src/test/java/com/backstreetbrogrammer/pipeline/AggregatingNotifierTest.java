@@ -0,0 +1,115 @@
+package com.backstreetbrogrammer.pipeline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AggregatingNotifierTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testMergesNotificationsPerKeyWithinWindow() {
+        final Map<String, Integer> sent = new ConcurrentHashMap<>();
+        final AggregatingNotifier<String, String, Integer, String> notifier =
+                new AggregatingNotifier<>(table -> table, table -> 0, (count, table) -> count + 1,
+                                          (table, count) -> {
+                                              sent.merge(table, count, Integer::sum);
+                                              return table + ":" + count;
+                                          },
+                                          Duration.ofMillis(50L), 2, executor, scheduler);
+
+        final List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(notifier.submit(i % 2 == 0 ? "quotes" : "trades"));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i % 2 == 0 ? "quotes:5" : "trades:5", futures.get(i).orTimeout(5L, TimeUnit.SECONDS).join());
+        }
+        assertEquals(Map.of("quotes", 5, "trades", 5), sent);
+        assertEquals(10L, notifier.getNotifications());
+        assertEquals(2L, notifier.getDigests());
+        assertEquals(0, notifier.getOpenDigests());
+    }
+
+    @Test
+    void testSlowSinkConflatesAndLimitsConcurrentSends() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger sending = new AtomicInteger();
+        final AtomicInteger maxSending = new AtomicInteger();
+        final AggregatingNotifier<String, String, Integer, Integer> notifier =
+                new AggregatingNotifier<>(table -> table, table -> 0, (count, table) -> count + 1,
+                                          (table, count) -> {
+                                              maxSending.accumulateAndGet(sending.incrementAndGet(), Math::max);
+                                              release.await();
+                                              sending.decrementAndGet();
+                                              return count;
+                                          },
+                                          Duration.ZERO, 1, executor, scheduler);
+
+        final CompletableFuture<Integer> first = notifier.submit("quotes");
+        // wait until the first digest is being sent, the sink is now stuck
+        while (sending.get() == 0) {
+            TimeUnit.MILLISECONDS.sleep(1L);
+        }
+
+        final List<CompletableFuture<Integer>> queued = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            queued.add(notifier.submit("quotes"));
+        }
+        TimeUnit.MILLISECONDS.sleep(20L);
+        assertFalse(queued.get(0).isDone());
+
+        release.countDown();
+        assertEquals(1, first.orTimeout(5L, TimeUnit.SECONDS).join());
+        for (final CompletableFuture<Integer> future : queued) {
+            assertEquals(100, future.orTimeout(5L, TimeUnit.SECONDS).join());
+        }
+        assertEquals(1, maxSending.get());
+        assertEquals(2L, notifier.getDigests());
+    }
+
+    @Test
+    void testSendFailureFailsDigestWaiters() {
+        final AggregatingNotifier<String, String, Integer, Integer> notifier =
+                new AggregatingNotifier<>(table -> table, table -> 0, (count, table) -> count + 1,
+                                          (table, count) -> {
+                                              throw new IllegalStateException("SMTP is down");
+                                          },
+                                          Duration.ZERO, 1, executor, scheduler);
+
+        final CompletableFuture<Integer> future = notifier.submit("quotes");
+
+        assertTrue(assertThrows(Exception.class, () -> future.orTimeout(5L, TimeUnit.SECONDS).join())
+                           .getCause() instanceof IllegalStateException);
+    }
+}
@@ -0,0 +1,123 @@
+package com.backstreetbrogrammer.pipeline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchingStageTest {
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+    private final List<List<Integer>> written = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testFlushesWhenBatchIsFull() {
+        final BatchingStage<Integer, Integer> stage =
+                new BatchingStage<>(3, Duration.ofHours(1L), this::write, executor, scheduler);
+
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(stage.submit(i));
+        }
+
+        for (final CompletableFuture<Integer> future : futures) {
+            assertEquals(3, future.orTimeout(5L, TimeUnit.SECONDS).join());
+        }
+        // batches are written concurrently, so in any order
+        assertEquals(Set.of(List.of(0, 1, 2), List.of(3, 4, 5)), Set.copyOf(written));
+        assertEquals(2L, stage.getBatches());
+        assertEquals(6L, stage.getItems());
+    }
+
+    @Test
+    void testFlushesAfterLinger() {
+        final BatchingStage<Integer, Integer> stage =
+                new BatchingStage<>(100, Duration.ofMillis(20L), this::write, executor, scheduler);
+
+        final CompletableFuture<Integer> first = stage.submit(1);
+        final CompletableFuture<Integer> second = stage.submit(2);
+
+        assertEquals(2, first.orTimeout(5L, TimeUnit.SECONDS).join());
+        assertEquals(2, second.join());
+        assertEquals(List.of(List.of(1, 2)), written);
+    }
+
+    @Test
+    void testWriteFailureFailsTheWholeBatch() {
+        final BatchingStage<Integer, Integer> stage =
+                new BatchingStage<>(2, Duration.ofHours(1L), batch -> {
+                    throw new IllegalStateException("DB is down");
+                }, executor, scheduler);
+
+        final CompletableFuture<Integer> first = stage.submit(1);
+        final CompletableFuture<Integer> second = stage.submit(2);
+
+        assertThrows(CompletionException.class, () -> first.orTimeout(5L, TimeUnit.SECONDS).join());
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    @Test
+    void testCloseFlushesAndRejects() {
+        final BatchingStage<Integer, Integer> stage =
+                new BatchingStage<>(100, Duration.ofHours(1L), this::write, executor, scheduler);
+
+        final CompletableFuture<Integer> pending = stage.submit(1);
+        stage.close();
+
+        assertEquals(1, pending.orTimeout(5L, TimeUnit.SECONDS).join());
+        assertThrows(CompletionException.class, () -> stage.submit(2).join());
+    }
+
+    @Test
+    void testSubmissionsRacingCloseAreWrittenOrRejected() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            final BatchingStage<Integer, Integer> stage =
+                    new BatchingStage<>(100, Duration.ofHours(1L), this::write, executor, scheduler);
+            final List<CompletableFuture<Integer>> futures = new CopyOnWriteArrayList<>();
+            final Thread submitter = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    futures.add(stage.submit(i));
+                }
+            });
+            submitter.start();
+            stage.close();
+            submitter.join();
+
+            // nothing is left waiting for the hour-long linger
+            for (final CompletableFuture<Integer> future : futures) {
+                assertTrue(future.handle((size, throwable) -> true).orTimeout(5L, TimeUnit.SECONDS).join());
+            }
+        }
+    }
+
+    private Integer write(final List<Integer> batch) {
+        written.add(List.copyOf(batch));
+        return batch.size();
+    }
+}
@@ -0,0 +1,159 @@
+package com.backstreetbrogrammer.pipeline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelineTest {
+
+    private ExecutorService fetchExecutor;
+    private ExecutorService persistExecutor;
+
+    @BeforeEach
+    void setUp() {
+        fetchExecutor = Executors.newFixedThreadPool(8);
+        persistExecutor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fetchExecutor.shutdownNow();
+        persistExecutor.shutdownNow();
+    }
+
+    @Test
+    void testStagesOverlapWithinInFlightLimits() {
+        final InFlightCounter fetching = new InFlightCounter();
+        final InFlightCounter persisting = new InFlightCounter();
+        final Pipeline<Integer, String> pipeline =
+                Pipeline.<Integer>builder()
+                        .stage("fetch", i -> fetching.run(() -> "quote-" + i, 10L), fetchExecutor, 4)
+                        .stage("persist", quote -> persisting.run(() -> quote + "-saved", 30L), persistExecutor, 2)
+                        .asyncStage("notify", saved -> CompletableFuture.completedFuture(saved + "-sent"), 1)
+                        .build();
+
+        final List<Integer> items = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+        final Set<String> outputs = ConcurrentHashMap.newKeySet();
+        pipeline.process(items, 8, outputs::add).orTimeout(10L, TimeUnit.SECONDS).join();
+
+        assertEquals(20, outputs.size());
+        assertTrue(outputs.contains("quote-7-saved-sent"));
+        assertTrue(fetching.max.get() <= 4);
+        assertEquals(2, persisting.max.get());
+
+        final PipelineMetrics metrics = pipeline.metrics();
+        assertEquals(20L, metrics.getCompletedItems());
+        assertEquals(List.of("fetch", "persist", "notify"),
+                     metrics.getStages().stream().map(StageMetrics::getName).collect(Collectors.toList()));
+        assertEquals("persist", metrics.getBottleneck().getName());
+        assertTrue(metrics.getMaxLatencyMicros() >= metrics.getMeanLatencyMicros());
+    }
+
+    @Test
+    void testFailedItemIsCountedAndDoesNotStopOthers() {
+        final Pipeline<Integer, Integer> pipeline =
+                Pipeline.<Integer>builder()
+                        .stage("validate", i -> {
+                            if (i == 3) {
+                                throw new IllegalArgumentException("bad item");
+                            }
+                            return i;
+                        }, fetchExecutor, 2)
+                        .build();
+
+        final AtomicInteger outputs = new AtomicInteger();
+        pipeline.process(List.of(1, 2, 3, 4), 2, i -> outputs.incrementAndGet())
+                .orTimeout(5L, TimeUnit.SECONDS)
+                .join();
+
+        assertEquals(3, outputs.get());
+        assertEquals(1L, pipeline.metrics().getFailedItems());
+        assertEquals(1L, pipeline.metrics().getStages().get(0).getFailed());
+        assertThrows(CompletionException.class, () -> pipeline.submit(3).join());
+    }
+
+    @Test
+    void testSynchronousStagesDoNotRecurse() {
+        final Pipeline<Integer, Integer> pipeline =
+                Pipeline.<Integer>builder()
+                        .asyncStage("increment", i -> CompletableFuture.completedFuture(i + 1), 1)
+                        .build();
+
+        final AtomicInteger outputs = new AtomicInteger();
+        pipeline.process(IntStream.range(0, 100_000).boxed().collect(Collectors.toList()), 1,
+                         i -> outputs.incrementAndGet()).join();
+
+        assertEquals(100_000, outputs.get());
+    }
+
+    @Test
+    void testEmptyInput() {
+        final Pipeline<Integer, Integer> pipeline =
+                Pipeline.<Integer>builder().stage("identity", i -> i, fetchExecutor, 1).build();
+
+        assertTrue(pipeline.process(List.of(), 1, i -> fail("no items")).isDone());
+    }
+
+    @Test
+    void testBranchesDoNotShareStages() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Pipeline.Builder<Integer, Integer> base =
+                Pipeline.<Integer>builder().stage("gate", i -> {
+                    if (i < 0) {
+                        try {
+                            release.await(5L, TimeUnit.SECONDS);
+                        } catch (final InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return i + 1;
+                }, fetchExecutor, 1);
+        final Pipeline<Integer, Integer> doubled = base.stage("double", i -> i * 2, fetchExecutor, 1).build();
+        final Pipeline<Integer, Integer> negated = base.stage("negate", i -> -i, fetchExecutor, 1).build();
+
+        // holds the only slot of doubled's gate: negated's gate has its own limit
+        final CompletableFuture<Integer> held = doubled.submit(-1);
+        assertEquals(-4, negated.submit(3).orTimeout(5L, TimeUnit.SECONDS).join());
+        assertEquals(1, doubled.metrics().getStages().get(0).getInFlight());
+        assertEquals(0, negated.metrics().getStages().get(0).getInFlight());
+
+        release.countDown();
+        assertEquals(0, held.join());
+        assertEquals(1L, doubled.metrics().getStages().get(0).getCompleted());
+        assertEquals(1L, negated.metrics().getStages().get(0).getCompleted());
+    }
+
+    private static final class InFlightCounter {
+
+        private final AtomicInteger current = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+
+        private <T> T run(final Supplier<T> work, final long millis) {
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(millis);
+                return work.get();
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                current.decrementAndGet();
+            }
+        }
+    }
+}
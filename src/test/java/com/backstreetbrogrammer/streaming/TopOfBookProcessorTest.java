@@ -0,0 +1,233 @@
+package com.backstreetbrogrammer.streaming;
+
+import com.backstreetbrogrammer.marketdata.SimulatedMarketDataSource;
+import com.backstreetbrogrammer.model.MarketData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopOfBookProcessorTest {
+
+    @Test
+    void testPublishesOnlyBestPriceChanges() {
+        final TopOfBookProcessor processor = new TopOfBookProcessor(Runnable::run, 16);
+        final ManualVenue a = new ManualVenue("A");
+        final ManualVenue b = new ManualVenue("B");
+        processor.connect(a);
+        processor.connect(b);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+
+        a.tick("AAPL", 10D);
+        b.tick("AAPL", 12D); // not better
+        b.tick("AAPL", 9D);
+        a.tick("AAPL", 8D);
+        a.tick("AAPL", 11D); // best venue moved away: back to B
+        b.tick("AAPL", 9D); // best venue, same price
+
+        assertEquals(List.of("A@10.0", "B@9.0", "A@8.0", "B@9.0"), subscriber.quotes());
+        assertEquals(6L, processor.getReceived());
+        assertEquals(4L, processor.getPublished());
+        assertEquals("B", processor.bestPrice("AAPL").orElseThrow().getServer());
+        assertTrue(processor.bestPrice("MSFT").isEmpty());
+    }
+
+    @Test
+    void testTerminatedVenueIsDroppedFromTheBook() {
+        final TopOfBookProcessor processor = new TopOfBookProcessor(Runnable::run, 16);
+        final ManualVenue a = new ManualVenue("A");
+        final ManualVenue b = new ManualVenue("B");
+        processor.connect(a);
+        processor.connect(b);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+
+        a.tick("AAPL", 10D);
+        a.tick("MSFT", 20D);
+        b.tick("AAPL", 9D);
+        b.tick("MSFT", 21D);
+        b.subscriber.onError(new IllegalStateException("disconnected"));
+
+        assertEquals(List.of("A@10.0", "A@20.0", "B@9.0", "A@10.0"), subscriber.quotes());
+        assertEquals("A", processor.bestPrice("AAPL").orElseThrow().getServer());
+        assertEquals("A", processor.bestPrice("MSFT").orElseThrow().getServer());
+
+        a.subscriber.onComplete();
+        assertTrue(processor.bestPrice("AAPL").isEmpty());
+        assertTrue(processor.bestPrice("MSFT").isEmpty());
+        assertEquals(4L, processor.getPublished());
+    }
+
+    @Test
+    void testConflatesForSlowSubscriber() {
+        final TopOfBookProcessor processor = new TopOfBookProcessor(Runnable::run, 16);
+        final ManualVenue a = new ManualVenue("A");
+        processor.connect(a);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(1L);
+        processor.subscribe(subscriber);
+
+        a.tick("AAPL", 10D);
+        a.tick("AAPL", 9D);
+        a.tick("MSFT", 20D);
+        a.tick("AAPL", 8D);
+        a.tick("AAPL", 7D);
+        assertEquals(List.of("A@10.0"), subscriber.quotes());
+
+        subscriber.subscription.request(10L);
+        assertEquals(List.of("A@10.0", "A@7.0", "A@20.0"), subscriber.quotes());
+        assertEquals(2L, processor.getConflated());
+    }
+
+    @Test
+    void testReplenishesVenueDemandAsTicksAreConsumed() {
+        final TopOfBookProcessor processor = new TopOfBookProcessor(Runnable::run, 4);
+        final ManualVenue a = new ManualVenue("A");
+        processor.connect(a);
+        assertEquals(4L, a.requested);
+
+        a.tick("AAPL", 10D);
+        assertEquals(4L, a.requested);
+        a.tick("AAPL", 11D);
+        assertEquals(6L, a.requested);
+    }
+
+    @Test
+    void testSnapshotCancelAndClose() {
+        final TopOfBookProcessor processor = new TopOfBookProcessor(Runnable::run, 16);
+        final ManualVenue a = new ManualVenue("A");
+        processor.connect(a);
+        a.tick("AAPL", 10D);
+
+        final RecordingSubscriber late = new RecordingSubscriber(Long.MAX_VALUE);
+        processor.subscribe(late);
+        assertEquals(List.of("A@10.0"), late.quotes());
+
+        final RecordingSubscriber cancelled = new RecordingSubscriber(Long.MAX_VALUE);
+        processor.subscribe(cancelled);
+        cancelled.subscription.cancel();
+        assertEquals(1, processor.getSubscriberCount());
+        a.tick("AAPL", 9D);
+        assertEquals(List.of("A@10.0"), cancelled.quotes());
+
+        processor.close();
+        assertTrue(late.completed);
+        assertFalse(cancelled.completed);
+        assertTrue(a.cancelled);
+        assertEquals(0, processor.getSubscriberCount());
+    }
+
+    @Test
+    void testRejectsNonPositiveRequest() {
+        final TopOfBookProcessor processor = new TopOfBookProcessor(Runnable::run, 16);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(0L);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, processor.getSubscriberCount());
+    }
+
+    @Test
+    void testConsolidatesTickPublishers() throws InterruptedException {
+        final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        final List<TickPublisher> venues = SimulatedMarketDataSource.venues().stream()
+                .map(venue -> new TickPublisher(venue, List.of("AAPL", "MSFT"), Duration.ofMillis(1L), 64,
+                                                Runnable::run, timer))
+                .collect(Collectors.toList());
+        try (final TopOfBookProcessor processor = new TopOfBookProcessor(Runnable::run, 64)) {
+            venues.forEach(processor::connect);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+            while (processor.getReceived() < 100L && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(5L);
+            }
+            assertTrue(processor.getReceived() >= 100L);
+            assertTrue(processor.bestPrice("AAPL").isPresent());
+            assertTrue(processor.bestPrice("MSFT").isPresent());
+            assertTrue(processor.getPublished() <= processor.getReceived());
+        } finally {
+            venues.forEach(TickPublisher::close);
+            timer.shutdownNow();
+        }
+    }
+
+    private static final class ManualVenue implements Flow.Publisher<MarketData>, Flow.Subscription {
+
+        private final String name;
+        private Flow.Subscriber<? super MarketData> subscriber;
+        private long requested;
+        private boolean cancelled;
+
+        private ManualVenue(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void subscribe(final Flow.Subscriber<? super MarketData> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(final long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void tick(final String symbol, final double price) {
+            subscriber.onNext(new MarketData(name, symbol, price));
+        }
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<MarketData> {
+
+        private final long initialDemand;
+        private final List<MarketData> received = new CopyOnWriteArrayList<>();
+        private Flow.Subscription subscription;
+        private volatile boolean completed;
+        private volatile Throwable error;
+
+        private RecordingSubscriber(final long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(final MarketData item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        private List<String> quotes() {
+            return received.stream()
+                           .map(marketData -> marketData.getServer() + "@" + marketData.getPrice())
+                           .collect(Collectors.toList());
+        }
+    }
+
+}